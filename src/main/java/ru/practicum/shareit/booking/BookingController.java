@@ -2,18 +2,31 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingRole;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.APIBadRequestException;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -24,8 +37,15 @@ import java.util.stream.Collectors;
 @Validated
 public class BookingController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
 
+    @Value("${shareit.booking.batch.max-size:100}")
+    private int maxBatchSize;
+    @Value("${shareit.booking.decisions.max-size:100}")
+    private int maxDecisions;
+
     @PostMapping
     public BookingDto createBooking(
             @RequestBody @Valid CreateBookingDto dto,
@@ -36,6 +56,18 @@ public class BookingController {
         return BookingMapper.toDto(booking);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBookings(
+            @RequestBody List<CreateBookingDto> dtos,
+            @RequestHeader("X-Sharer-User-Id") int userId
+    ) {
+        log.info("createBookings {} from {}", dtos.size(), userId);
+        if (dtos.size() > maxBatchSize) {
+            throw new APIBadRequestException("Не больше %d бронирований за запрос, получено %d", maxBatchSize, dtos.size());
+        }
+        return bookingService.createBookings(dtos, userId);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approveBooking(
             @PathVariable int bookingId,
@@ -47,6 +79,18 @@ public class BookingController {
         return BookingMapper.toDto(booking);
     }
 
+    @PatchMapping("/owner/decisions")
+    public List<BookingDecisionResultDto> decideBookings(
+            @RequestBody List<BookingDecisionDto> dtos,
+            @RequestHeader("X-Sharer-User-Id") int userId
+    ) {
+        log.info("decideBookings {} from {}", dtos.size(), userId);
+        if (dtos.size() > maxDecisions) {
+            throw new APIBadRequestException("Не больше %d решений за запрос, получено %d", maxDecisions, dtos.size());
+        }
+        return bookingService.decideBookings(dtos, userId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBooking(@PathVariable int bookingId, @RequestHeader("X-Sharer-User-Id") int userId) {
         log.info("getBooking {} {}", bookingId, userId);
@@ -55,27 +99,59 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getAllBookingsByBookerId(
+    public ResponseEntity<List<BookingDto>> getAllBookingsByBookerId(
             @RequestHeader("X-Sharer-User-Id") int userId,
             @RequestParam(defaultValue = "ALL") BookingState state,
             @RequestParam(defaultValue = "0") @Min(0) int from,
-            @RequestParam(defaultValue = "10") @Min(1) int size
+            @RequestParam(defaultValue = "10") @Min(1) int size,
+            @RequestParam(required = false) String cursor
     ) {
-        log.info("getAllBookingsByBookerId {} {} {}", state, from, size);
-        List<Booking> bookings = bookingService.getAllBookingsByBookerId(userId, state, from, size);
-        return bookings.stream().map(BookingMapper::toDto).collect(Collectors.toList());
+        log.info("getAllBookingsByBookerId {} {} {} {}", state, from, size, cursor);
+        List<BookingView> bookings = Objects.isNull(cursor)
+                ? bookingService.getAllBookingsByBookerId(userId, state, from, size)
+                : bookingService.getAllBookingsByBookerIdAfter(userId, state, cursor, size);
+        return toPage(bookings, size);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllBookingItemsByBookerId(
+    public ResponseEntity<List<BookingDto>> getAllBookingItemsByBookerId(
             @RequestHeader("X-Sharer-User-Id") int userId,
             @RequestParam(defaultValue = "ALL") BookingState state,
             @RequestParam(defaultValue = "0") @Min(0) int from,
-            @RequestParam(defaultValue = "10") @Min(1) int size
+            @RequestParam(defaultValue = "10") @Min(1) int size,
+            @RequestParam(required = false) String cursor
     ) {
-        log.info("getAllBookingItemsByBookerId {} {} {}", state, from, size);
-        List<Booking> bookings = bookingService.getAllBookingByItemsByOwnerId(userId, state, from, size);
-        return bookings.stream().map(BookingMapper::toDto).collect(Collectors.toList());
+        log.info("getAllBookingItemsByBookerId {} {} {} {}", state, from, size, cursor);
+        List<BookingView> bookings = Objects.isNull(cursor)
+                ? bookingService.getAllBookingByItemsByOwnerId(userId, state, from, size)
+                : bookingService.getAllBookingByItemsByOwnerIdAfter(userId, state, cursor, size);
+        return toPage(bookings, size);
+    }
+
+    @GetMapping(path = "/owner/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOwnerBookings(@RequestHeader("X-Sharer-User-Id") int userId) {
+        log.info("streamOwnerBookings {}", userId);
+        return bookingService.subscribeOwnerBookings(userId);
+    }
+
+    @GetMapping("/summary")
+    public Map<BookingState, Long> getBookerSummary(@RequestHeader("X-Sharer-User-Id") int userId) {
+        log.info("getBookerSummary {}", userId);
+        return bookingService.getBookingSummary(userId, BookingRole.BOOKER);
+    }
+
+    @GetMapping("/owner/summary")
+    public Map<BookingState, Long> getOwnerSummary(@RequestHeader("X-Sharer-User-Id") int userId) {
+        log.info("getOwnerSummary {}", userId);
+        return bookingService.getBookingSummary(userId, BookingRole.OWNER);
+    }
+
+    private ResponseEntity<List<BookingDto>> toPage(List<BookingView> bookings, int size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (bookings.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, BookingCursor.of(bookings.get(bookings.size() - 1)).encode());
+        }
+        return response.body(bookings.stream().map(BookingMapper::toDto).collect(Collectors.toList()));
     }
 
 }
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// Непересекающиеся полуоткрытые интервалы [start, end): пересекающиеся склеиваются при добавлении
+public class IntervalSet {
+
+    private final NavigableMap<LocalDateTime, LocalDateTime> intervals = new TreeMap<>();
+
+    public synchronized void add(LocalDateTime start, LocalDateTime end) {
+        if (!end.isAfter(start)) {
+            return;
+        }
+        LocalDateTime mergedStart = start;
+        LocalDateTime mergedEnd = end;
+        Map.Entry<LocalDateTime, LocalDateTime> previous = intervals.floorEntry(start);
+        if (previous != null && !previous.getValue().isBefore(start)) {
+            mergedStart = previous.getKey();
+            if (previous.getValue().isAfter(mergedEnd)) {
+                mergedEnd = previous.getValue();
+            }
+        }
+        Map.Entry<LocalDateTime, LocalDateTime> next = intervals.ceilingEntry(mergedStart);
+        while (next != null && !next.getKey().isAfter(mergedEnd)) {
+            if (next.getValue().isAfter(mergedEnd)) {
+                mergedEnd = next.getValue();
+            }
+            intervals.remove(next.getKey());
+            next = intervals.higherEntry(next.getKey());
+        }
+        intervals.put(mergedStart, mergedEnd);
+    }
+
+    public synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, LocalDateTime> candidate = intervals.lowerEntry(end);
+        return candidate != null && candidate.getValue().isAfter(start);
+    }
+
+    public synchronized int size() {
+        return intervals.size();
+    }
+
+}
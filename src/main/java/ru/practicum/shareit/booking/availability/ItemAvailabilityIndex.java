@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.util.TransactionUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Подтверждённые интервалы бронирований по предметам. Интервалы предмета читаются из базы при первом
+ * обращении вне блокировок кэша, поэтому медленный запрос не держит соседние ключи; число предметов
+ * в кэше ограничено.
+ */
+@Component
+public class ItemAvailabilityIndex {
+
+    static final String NAME = "bookings.availability";
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Integer, IntervalSet> cache;
+    private final ConcurrentMap<Integer, IntervalSet> intervalsByItem;
+    // растёт перед каждым добавлением интервала, загрузка, во время которой он изменился, не кэшируется
+    private final AtomicLong approvals = new AtomicLong();
+
+    public ItemAvailabilityIndex(
+            BookingRepository bookingRepository,
+            @Value("${shareit.booking.availability.cache-size:10000}") long size,
+            MeterRegistry meterRegistry
+    ) {
+        this.bookingRepository = bookingRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(size)
+                .recordStats()
+                .build();
+        this.intervalsByItem = cache.asMap();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    public boolean isBooked(int itemId, LocalDateTime start, LocalDateTime end) {
+        IntervalSet intervals = cache.getIfPresent(itemId);
+        if (intervals == null) {
+            intervals = load(itemId);
+        }
+        return intervals.overlaps(start, end);
+    }
+
+    public void addApproved(int itemId, LocalDateTime start, LocalDateTime end) {
+        TransactionUtils.afterCommit(() -> {
+            approvals.incrementAndGet();
+            intervalsByItem.computeIfPresent(itemId, (id, intervals) -> {
+                intervals.add(start, end);
+                return intervals;
+            });
+        });
+    }
+
+    private IntervalSet load(int itemId) {
+        long stamp = approvals.get();
+        IntervalSet intervals = new IntervalSet();
+        bookingRepository.findIntervalsByItemIdAndStatus(itemId, BookingStatus.APPROVED)
+                .forEach(interval -> intervals.add(interval.getStart(), interval.getEnd()));
+        IntervalSet existing = intervalsByItem.putIfAbsent(itemId, intervals);
+        if (existing != null) {
+            return existing;
+        }
+        // подтверждение могло закоммититься после чтения и не застать запись в кэше
+        if (approvals.get() != stamp) {
+            intervalsByItem.remove(itemId, intervals);
+        }
+        return intervals;
+    }
+
+}
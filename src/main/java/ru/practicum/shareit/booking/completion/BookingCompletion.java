@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.completion;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class BookingCompletion {
+
+    private final Integer itemId;
+    private final Integer bookerId;
+    private final LocalDateTime end;
+
+}
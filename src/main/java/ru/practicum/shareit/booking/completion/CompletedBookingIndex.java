@@ -0,0 +1,132 @@
+package ru.practicum.shareit.booking.completion;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.util.TransactionUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Пары (предмет, арендатор), у которых есть завершившееся подтверждённое бронирование.
+ * Подтверждённые, но ещё не закончившиеся бронирования ждут в очереди по времени окончания
+ * и переносятся в множество при первой проверке после их окончания.
+ */
+@Slf4j
+@Component
+public class CompletedBookingIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongHashSet completed = new LongHashSet(INITIAL_CAPACITY);
+    private final PriorityQueue<PendingCompletion> pending = new PriorityQueue<>();
+    private volatile long nextCompletion = Long.MAX_VALUE;
+    private volatile boolean loaded;
+
+    public CompletedBookingIndex(BookingRepository bookingRepository, PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<BookingCompletion> completions = bookingRepository.streamCompletionsByStatus(BookingStatus.APPROVED)) {
+                    completions.forEach(completion ->
+                            add(completion.getItemId(), completion.getBookerId(), completion.getEnd()));
+                }
+            });
+            loaded = true;
+        }
+        log.info("Loaded {} completed item bookings, {} pending", completed.size(), pending.size());
+    }
+
+    public boolean hasCompleted(int itemId, int bookerId) {
+        load();
+        long now = System.currentTimeMillis();
+        if (nextCompletion <= now) {
+            promote(now);
+        }
+        lock.readLock().lock();
+        try {
+            return completed.contains(key(itemId, bookerId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void addApproved(int itemId, int bookerId, LocalDateTime end) {
+        TransactionUtils.afterCommit(() -> add(itemId, bookerId, end));
+    }
+
+    private void add(int itemId, int bookerId, LocalDateTime end) {
+        long endMillis = end.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long key = key(itemId, bookerId);
+        lock.writeLock().lock();
+        try {
+            if (endMillis <= System.currentTimeMillis()) {
+                completed.add(key);
+            } else {
+                pending.add(new PendingCompletion(endMillis, key));
+                nextCompletion = pending.peek().end;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void promote(long now) {
+        lock.writeLock().lock();
+        try {
+            while (!pending.isEmpty() && pending.peek().end <= now) {
+                completed.add(pending.poll().key);
+            }
+            nextCompletion = pending.isEmpty() ? Long.MAX_VALUE : pending.peek().end;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static long key(int itemId, int bookerId) {
+        return ((long) itemId << 32) | (bookerId & 0xFFFFFFFFL);
+    }
+
+    private static class PendingCompletion implements Comparable<PendingCompletion> {
+
+        private final long end;
+        private final long key;
+
+        private PendingCompletion(long end, long key) {
+            this.end = end;
+            this.key = key;
+        }
+
+        @Override
+        public int compareTo(PendingCompletion other) {
+            return Long.compare(end, other.end);
+        }
+
+    }
+
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+public class BookingBatchResultDto {
+
+    private Integer index;
+    private Boolean success;
+    private BookingDto booking;
+    private String error;
+
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+public class BookingDecisionResultDto {
+
+    private Integer index;
+    private Boolean success;
+    private ShortBookingDto booking;
+    private String error;
+
+}
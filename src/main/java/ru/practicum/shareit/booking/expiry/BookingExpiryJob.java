@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.expiry;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingExpiryJob {
+
+    private final BookingExpiryWheel bookingExpiryWheel;
+    private final BookingService bookingService;
+
+    @Value("${shareit.booking.expiry.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${shareit.booking.expiry.tick:PT1S}")
+    public void cancelExpired() {
+        List<Integer> expired = bookingExpiryWheel.pollExpired();
+        for (int from = 0; from < expired.size(); from += batchSize) {
+            List<Integer> batch = expired.subList(from, Math.min(from + batchSize, expired.size()));
+            int canceled = bookingService.cancelBookings(batch);
+            log.info("cancelExpired {} of {}", canceled, batch.size());
+        }
+    }
+
+}
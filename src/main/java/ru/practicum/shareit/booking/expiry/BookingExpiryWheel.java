@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking.expiry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.BookingPeriod;
+import ru.practicum.shareit.util.TransactionUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+public class BookingExpiryWheel {
+
+    private final BookingRepository bookingRepository;
+    private final Duration deadline;
+    private final TimingWheel wheel;
+    private final Queue<Integer> overdue = new ConcurrentLinkedQueue<>();
+
+    public BookingExpiryWheel(
+            BookingRepository bookingRepository,
+            @Value("${shareit.booking.expiry.deadline:PT0S}") Duration deadline,
+            @Value("${shareit.booking.expiry.tick:PT1S}") Duration tick,
+            @Value("${shareit.booking.expiry.wheel-size:64}") int wheelSize
+    ) {
+        this.bookingRepository = bookingRepository;
+        this.deadline = deadline;
+        this.wheel = new TimingWheel(tick.toMillis(), wheelSize, System.currentTimeMillis());
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try (Stream<BookingPeriod> periods = bookingRepository.streamPeriodsByStatus(BookingStatus.WAITING)) {
+            periods.forEach(period -> add(period.getBookingId(), period.getStart()));
+        }
+        log.info("Loaded {} waiting bookings into expiry wheel, {} already overdue", wheel.size(), overdue.size());
+    }
+
+    public void schedule(Collection<Booking> bookings) {
+        TransactionUtils.afterCommit(() -> bookings.forEach(booking -> add(booking.getId(), booking.getStart())));
+    }
+
+    public List<Integer> pollExpired() {
+        List<Integer> expired = new ArrayList<>(wheel.advance(System.currentTimeMillis()));
+        for (Integer bookingId = overdue.poll(); bookingId != null; bookingId = overdue.poll()) {
+            expired.add(bookingId);
+        }
+        return expired;
+    }
+
+    private void add(int bookingId, LocalDateTime start) {
+        long expiration = start.plus(deadline).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (!wheel.add(bookingId, expiration)) {
+            overdue.add(bookingId);
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.booking.expiry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class TimingWheel {
+
+    private final Level wheel;
+    private int size;
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        wheel = new Level(tickMillis, wheelSize, startMillis);
+    }
+
+    public synchronized boolean add(int id, long expirationMillis) {
+        if (!wheel.add(new Entry(id, expirationMillis))) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    public synchronized List<Integer> advance(long nowMillis) {
+        List<Integer> expired = new ArrayList<>();
+        wheel.advance(nowMillis, entry -> expired.add(entry.id));
+        size -= expired.size();
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private static class Entry {
+
+        private final int id;
+        private final long expiration;
+
+        private Entry(int id, long expiration) {
+            this.id = id;
+            this.expiration = expiration;
+        }
+
+    }
+
+    // Уровень покрывает [currentTime, currentTime + interval), более дальние сроки уходят на следующий уровень
+    private static class Level {
+
+        private final long tick;
+        private final int wheelSize;
+        private final long interval;
+        private final List<List<Entry>> buckets;
+        private long currentTime;
+        private Level overflow;
+
+        private Level(long tick, int wheelSize, long startTime) {
+            this.tick = tick;
+            this.wheelSize = wheelSize;
+            this.interval = tick * wheelSize;
+            this.currentTime = startTime - startTime % tick;
+            this.buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new ArrayList<>());
+            }
+        }
+
+        private boolean add(Entry entry) {
+            if (entry.expiration < currentTime) {
+                return false;
+            }
+            if (entry.expiration < currentTime + interval) {
+                bucket(entry.expiration).add(entry);
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level(interval, wheelSize, currentTime);
+            }
+            return overflow.add(entry);
+        }
+
+        private void advance(long now, Consumer<Entry> expired) {
+            while (currentTime + tick <= now) {
+                drain(currentTime).forEach(expired);
+                currentTime += tick;
+                if (overflow != null && currentTime % interval == 0) {
+                    overflow.cascade(currentTime, this::add);
+                }
+            }
+        }
+
+        private void cascade(long time, Consumer<Entry> lower) {
+            currentTime = time;
+            if (overflow != null && time % interval == 0) {
+                overflow.cascade(time, this::add);
+            }
+            drain(time).forEach(lower);
+        }
+
+        private List<Entry> drain(long time) {
+            List<Entry> bucket = bucket(time);
+            List<Entry> entries = new ArrayList<>(bucket);
+            bucket.clear();
+            return entries;
+        }
+
+        private List<Entry> bucket(long time) {
+            return buckets.get((int) ((time / tick) % wheelSize));
+        }
+
+    }
+
+}
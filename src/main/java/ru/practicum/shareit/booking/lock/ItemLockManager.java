@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class ItemLockManager {
+
+    private final ItemRepository itemRepository;
+    private final ItemLockStrategy strategy;
+    private final ReentrantLock[] stripes;
+
+    public ItemLockManager(
+            ItemRepository itemRepository,
+            @Value("${shareit.booking.lock.strategy:PESSIMISTIC}") ItemLockStrategy strategy,
+            @Value("${shareit.booking.lock.stripes:256}") int stripes
+    ) {
+        this.itemRepository = itemRepository;
+        this.strategy = strategy;
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public ItemLockStrategy getStrategy() {
+        return strategy;
+    }
+
+    public Optional<Item> lock(int itemId) {
+        switch (strategy) {
+            case STRIPED:
+                lockStripes(List.of(itemId));
+                return itemRepository.findById(itemId);
+            case OPTIMISTIC:
+                return itemRepository.findByIdWithVersionIncrement(itemId);
+            default:
+                return itemRepository.findByIdForUpdate(itemId);
+        }
+    }
+
+    public List<Item> lockAll(Collection<Integer> itemIds) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        switch (strategy) {
+            case STRIPED:
+                lockStripes(itemIds);
+                return itemRepository.findAllById(itemIds);
+            case OPTIMISTIC:
+                return itemRepository.findAllByIdInWithVersionIncrement(itemIds);
+            default:
+                return itemRepository.findAllByIdInForUpdate(itemIds);
+        }
+    }
+
+    // Полосы захватываются по возрастанию номера и отпускаются только после завершения транзакции
+    private void lockStripes(Collection<Integer> itemIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка предмета возможна только внутри транзакции");
+        }
+        int[] indexes = itemIds.stream()
+                .mapToInt(itemId -> Math.floorMod(itemId, stripes.length))
+                .distinct()
+                .sorted()
+                .toArray();
+        for (int index : indexes) {
+            ReentrantLock lock = stripes[index];
+            lock.lock();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        }
+    }
+
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.lock;
+
+public enum ItemLockStrategy {
+
+    STRIPED,
+    PESSIMISTIC,
+    OPTIMISTIC
+
+}
@@ -4,8 +4,13 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
@@ -33,6 +38,24 @@ public class BookingMapper {
                 .build();
     }
 
+    public static BookingDto toDto(BookingView view) {
+        return BookingDto.builder()
+                .id(view.getId())
+                .start(view.getStart())
+                .end(view.getEnd())
+                .status(view.getStatus())
+                .booker(new UserDto(view.getBookerId(), view.getBookerName(), view.getBookerEmail()))
+                .item(ItemDto.builder()
+                        .id(view.getItemId())
+                        .name(view.getItemName())
+                        .description(view.getItemDescription())
+                        .available(view.isItemAvailable())
+                        .ownerId(view.getItemOwnerId())
+                        .requestId(view.getItemRequestId())
+                        .build())
+                .build();
+    }
+
     public static ShortBookingDto toShortBookingDto(Booking booking) {
         return ShortBookingDto.builder()
                 .id(booking.getId())
@@ -44,4 +67,15 @@ public class BookingMapper {
                 .build();
     }
 
+    public static ShortBookingDto toShortBookingDto(BookingSnapshot snapshot, BookingStatus status) {
+        return ShortBookingDto.builder()
+                .id(snapshot.getId())
+                .start(snapshot.getStart())
+                .end(snapshot.getEnd())
+                .status(status)
+                .bookerId(snapshot.getBookerId())
+                .itemId(snapshot.getItemId())
+                .build();
+    }
+
 }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Последнее (last) либо ближайшее следующее бронирование предмета относительно текущего момента.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class AdjacentBooking {
+
+    private final boolean last;
+    private final BookingSnapshot booking;
+
+}
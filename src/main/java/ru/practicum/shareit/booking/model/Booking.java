@@ -6,6 +6,7 @@ import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 @Entity
 @Getter
@@ -41,4 +42,15 @@ public class Booking {
     @Column(name = "status", nullable = false)
     private BookingStatus status;
 
+    @Column(name = "owner_id", nullable = false)
+    private Integer ownerId;
+
+    @PrePersist
+    @PreUpdate
+    private void fillOwnerId() {
+        if (Objects.nonNull(item) && Objects.nonNull(item.getOwner())) {
+            ownerId = item.getOwner().getId();
+        }
+    }
+
 }
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class BookingSnapshot {
+
+    private final Integer id;
+    private final Integer itemId;
+    private final Integer bookerId;
+    private final BookingStatus status;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+}
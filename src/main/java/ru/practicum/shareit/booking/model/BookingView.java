@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class BookingView {
+
+    private final Integer id;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final BookingStatus status;
+    private final Integer itemId;
+    private final String itemName;
+    private final String itemDescription;
+    private final boolean itemAvailable;
+    private final Integer itemOwnerId;
+    private final Integer itemRequestId;
+    private final Integer bookerId;
+    private final String bookerName;
+    private final String bookerEmail;
+
+}
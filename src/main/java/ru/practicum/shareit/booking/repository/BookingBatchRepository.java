@@ -0,0 +1,52 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Iterator;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class BookingBatchRepository {
+
+    private static final String INSERT_BOOKING = "insert into bookings" +
+            " (start_date, end_date, item_id, booker_id, status, owner_id) values (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_BOOKING, Statement.RETURN_GENERATED_KEYS)) {
+                for (Booking booking : bookings) {
+                    statement.setTimestamp(1, Timestamp.valueOf(booking.getStart()));
+                    statement.setTimestamp(2, Timestamp.valueOf(booking.getEnd()));
+                    statement.setInt(3, booking.getItem().getId());
+                    statement.setInt(4, booking.getBooker().getId());
+                    statement.setString(5, booking.getStatus().name());
+                    statement.setInt(6, booking.getItem().getOwner().getId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    Iterator<Booking> iterator = bookings.iterator();
+                    while (keys.next() && iterator.hasNext()) {
+                        iterator.next().setId(keys.getInt("booking_id"));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+}
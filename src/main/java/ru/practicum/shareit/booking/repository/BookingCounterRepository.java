@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class BookingCounterRepository {
+
+    private static final String INSERT_COUNTER = "insert into booking_counters" +
+            " (user_id, role, status, booking_count) values (?, ?, ?, 0) on conflict do nothing";
+    private static final String UPDATE_COUNTER = "update booking_counters set booking_count = booking_count + ?" +
+            " where user_id = ? and role = ? and status = ?";
+    private static final String SELECT_COUNTERS = "select status, booking_count from booking_counters" +
+            " where user_id = ? and role = ?";
+    private static final String DELETE_COUNTERS = "delete from booking_counters where user_id = ?";
+    private static final String INSERT_BOOKER_COUNTERS = "insert into booking_counters (user_id, role, status, booking_count)" +
+            " select booker_id, 'BOOKER', status, count(*) from bookings where booker_id = ? group by booker_id, status";
+    private static final String INSERT_OWNER_COUNTERS = "insert into booking_counters (user_id, role, status, booking_count)" +
+            " select owner_id, 'OWNER', status, count(*) from bookings where owner_id = ? group by owner_id, status";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void increment(int userId, BookingRole role, BookingStatus status, int delta) {
+        jdbcTemplate.update(INSERT_COUNTER, userId, role.name(), status.name());
+        jdbcTemplate.update(UPDATE_COUNTER, delta, userId, role.name(), status.name());
+    }
+
+    public Map<BookingStatus, Long> findCounts(int userId, BookingRole role) {
+        Map<BookingStatus, Long> counts = new EnumMap<>(BookingStatus.class);
+        jdbcTemplate.query(SELECT_COUNTERS, rs -> {
+            counts.put(BookingStatus.valueOf(rs.getString("status")), rs.getLong("booking_count"));
+        }, userId, role.name());
+        return counts;
+    }
+
+    public void rebuild(int userId) {
+        jdbcTemplate.update(DELETE_COUNTERS, userId);
+        jdbcTemplate.update(INSERT_BOOKER_COUNTERS, userId);
+        jdbcTemplate.update(INSERT_OWNER_COUNTERS, userId);
+    }
+
+}
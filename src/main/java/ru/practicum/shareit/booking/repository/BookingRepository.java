@@ -1,58 +1,100 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.availability.BookingInterval;
+import ru.practicum.shareit.booking.completion.BookingCompletion;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.booking.summary.BookingParticipants;
+import ru.practicum.shareit.booking.summary.BookingPeriod;
 
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Integer> {
+public interface BookingRepository extends JpaRepository<Booking, Integer>, BookingRepositoryCustom {
+
+    boolean existsByItem_IdAndStatusAndStartBeforeAndEndAfter(int itemId, BookingStatus status, LocalDateTime end, LocalDateTime start);
+
+    @Query("select new ru.practicum.shareit.booking.availability.BookingInterval(b.item.id, b.start, b.end)" +
+            " from Booking b where b.item.id = :itemId and b.status = :status")
+    List<BookingInterval> findIntervalsByItemIdAndStatus(int itemId, BookingStatus status);
+
+    @Query("select new ru.practicum.shareit.booking.availability.BookingInterval(b.item.id, b.start, b.end)" +
+            " from Booking b where b.item.id in :itemIds and b.status = :status and b.start < :to and b.end > :from")
+    List<BookingInterval> findIntervalsByItemIdInAndStatusInPeriod(
+            Collection<Integer> itemIds,
+            BookingStatus status,
+            LocalDateTime from,
+            LocalDateTime to
+    );
+
+    @Query("select new ru.practicum.shareit.booking.availability.BookingInterval(b.item.id, b.start, b.end)" +
+            " from Booking b where b.item.id = :itemId and b.status in :statuses and b.start < :to and b.end > :from" +
+            " order by b.start")
+    Stream<BookingInterval> streamIntervalsByItemIdInPeriod(
+            int itemId,
+            Collection<BookingStatus> statuses,
+            LocalDateTime from,
+            LocalDateTime to
+    );
+
+    @Query("select new ru.practicum.shareit.booking.summary.BookingPeriod(b.id, b.start, b.end)" +
+            " from Booking b where b.booker.id = :bookerId")
+    List<BookingPeriod> findPeriodsByBookerId(int bookerId);
+
+    @Query("select new ru.practicum.shareit.booking.summary.BookingPeriod(b.id, b.start, b.end)" +
+            " from Booking b where b.ownerId = :ownerId")
+    List<BookingPeriod> findPeriodsByOwnerId(int ownerId);
+
+    @Query("select distinct b.booker.id from Booking b where b.item.id = :itemId")
+    List<Integer> findBookerIdsByItemId(int itemId);
+
+    @Query("select distinct b.booker.id from Booking b where b.ownerId = :ownerId")
+    List<Integer> findBookerIdsByOwnerId(int ownerId);
+
+    @Query("select distinct b.ownerId from Booking b where b.booker.id = :bookerId")
+    List<Integer> findOwnerIdsByBookerId(int bookerId);
+
+    @Query("select new ru.practicum.shareit.booking.summary.BookingPeriod(b.id, b.start, b.end)" +
+            " from Booking b where b.status = :status")
+    Stream<BookingPeriod> streamPeriodsByStatus(BookingStatus status);
+
+    @Query("select new ru.practicum.shareit.booking.completion.BookingCompletion(b.item.id, b.booker.id, b.end)" +
+            " from Booking b where b.status = :status")
+    Stream<BookingCompletion> streamCompletionsByStatus(BookingStatus status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new ru.practicum.shareit.booking.summary.BookingParticipants(b.id, b.booker.id, b.ownerId)" +
+            " from Booking b where b.id in :bookingIds and b.status = :status")
+    List<BookingParticipants> findParticipantsForUpdate(Collection<Integer> bookingIds, BookingStatus status);
+
+    @Query("select b.item.id from Booking b where b.id = :bookingId")
+    Optional<Integer> findItemIdById(int bookingId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("from Booking b where b.id = :bookingId")
+    Optional<Booking> findByIdForUpdate(int bookingId);
+
+    @Query("select distinct b.item.id from Booking b where b.id in :bookingIds and b.ownerId = :ownerId")
+    List<Integer> findItemIdsByIdInAndOwnerId(Collection<Integer> bookingIds, int ownerId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new ru.practicum.shareit.booking.model.BookingSnapshot(b.id, b.item.id, b.booker.id, b.status, b.start, b.end)" +
+            " from Booking b where b.id in :bookingIds and b.ownerId = :ownerId")
+    List<BookingSnapshot> findSnapshotsForUpdate(Collection<Integer> bookingIds, int ownerId);
+
+    @Modifying
+    @Query("update Booking b set b.status = :status where b.id in :bookingIds")
+    int updateStatus(Collection<Integer> bookingIds, BookingStatus status);
 
-    @Query("from Booking b where b.item.owner.id = :ownerId and b.end < :now")
-    List<Booking> bookingsForItemPast(int ownerId, LocalDateTime now, Pageable pageable);
-
-    @Query("from Booking b where b.item.owner.id = :ownerId and b.start > :now")
-    List<Booking> bookingsForItemFuture(int ownerId, LocalDateTime now, Pageable pageable);
-
-    @Query("from Booking b where b.item.owner.id = :ownerId and b.end >= :now and b.start < :now")
-    List<Booking> bookingsForItemCurrent(int ownerId, LocalDateTime now, Pageable pageable);
-
-    @Query("from Booking b where b.item.owner.id = :ownerId and b.status = :status")
-    List<Booking> bookingsByItemOwnerAndStatus(int ownerId, BookingStatus status, Pageable pageable);
-
-    @Query("from Booking b where b.item.owner.id = :ownerId")
-    List<Booking> bookingsForItem(int ownerId, Pageable pageable);
-
-    List<Booking> findAllByBookerId(int bookerId, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStatus(int bookerId, BookingStatus status, Pageable pageable);
-
-    List<Booking> findByBookerIdAndEndBefore(int userId, LocalDateTime now, Pageable pageable);
-
-    List<Booking> findByBookerIdAndStartAfter(int userId, LocalDateTime now, Pageable pageable);
-
-    List<Booking> findByBookerIdAndEndIsAfterAndStartIsBefore(int userId, LocalDateTime end, LocalDateTime start, Pageable pageable);
-
-    Optional<Booking> findFirstByItem_IdAndStartBefore(int itemId, LocalDateTime nowTime, Sort sort);
-
-    Optional<Booking> findFirstByItem_IdAndStartAfterAndStatusNot(int itemId, LocalDateTime nowTime, BookingStatus status, Sort sort);
-
-    Collection<Booking> findAllByItemInAndStartBefore(Collection<Item> items, LocalDateTime nowTime, Sort sort);
-
-    Collection<Booking> findAllByItemInAndStartAfterAndStatusNot(Collection<Item> items, LocalDateTime nowTime, BookingStatus bookingStatus, Sort sort);
-
-    Optional<Booking> findFirstByItem_IdAndBooker_IdAndEndBefore(int itemId, int userId, LocalDateTime now);
-
-    @Query("select count(1)>0 from Booking b where b.item.id = :itemId and status = :bookingStatus" +
-            " and ((b.start between :startTime and :endTime) or (b.end between :startTime and :endTime))")
-    boolean existsByItem_IdStatusAndStartBetweenOrEndBetween(int itemId, BookingStatus bookingStatus, LocalDateTime startTime, LocalDateTime endTime);
 }
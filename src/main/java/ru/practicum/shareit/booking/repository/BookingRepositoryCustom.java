@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.AdjacentBooking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingView;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    List<BookingView> findBookerPage(int bookerId, BookingState state, LocalDateTime now, int from, int size);
+
+    List<BookingView> findOwnerPage(int ownerId, BookingState state, LocalDateTime now, int from, int size);
+
+    List<BookingView> findBookerPageAfter(int bookerId, BookingState state, LocalDateTime now, BookingCursor cursor, int size);
+
+    List<BookingView> findOwnerPageAfter(int ownerId, BookingState state, LocalDateTime now, BookingCursor cursor, int size);
+
+    List<AdjacentBooking> findAdjacentBookings(Collection<Integer> itemIds, LocalDateTime now);
+
+}
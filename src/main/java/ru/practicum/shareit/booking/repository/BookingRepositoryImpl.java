@@ -0,0 +1,155 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.AdjacentBooking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+@SuppressWarnings("unused")
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+
+    private static final String BOOKER = "b.booker.id = :userId";
+    private static final String OWNER = "b.ownerId = :userId";
+
+    // только колонки, нужные BookingDto, одним запросом без догрузки item/booker
+    private static final String SELECT_VIEW = "select new ru.practicum.shareit.booking.model.BookingView(" +
+            "b.id, b.start, b.end, b.status, i.id, i.name, i.description, i.available, b.ownerId, i.request.id," +
+            " u.id, u.name, u.email) from Booking b join b.item i join b.booker u where ";
+
+    private static final String ADJACENT_COLUMNS = "b.booking_id, b.item_id, b.booker_id, b.status, b.start_date, b.end_date";
+    private static final String LAST_CONDITION = "b.start_date < :now";
+    private static final String NEXT_CONDITION = "b.start_date > :now and b.status <> :rejected";
+    private static final String LAST_ORDER = "b.end_date desc, b.booking_id desc";
+    private static final String NEXT_ORDER = "b.start_date, b.booking_id";
+
+    // оконная функция: последнее и следующее бронирование каждого предмета одним запросом,
+    // в ответ попадает не больше двух строк на предмет
+    private static final String ADJACENT_WINDOW =
+            "select is_last, booking_id, item_id, booker_id, status, start_date, end_date from (" +
+                    "select true as is_last, " + ADJACENT_COLUMNS +
+                    ", row_number() over (partition by b.item_id order by " + LAST_ORDER + ") as rn" +
+                    " from bookings b where b.item_id in (:itemIds) and " + LAST_CONDITION +
+                    " union all " +
+                    "select false as is_last, " + ADJACENT_COLUMNS +
+                    ", row_number() over (partition by b.item_id order by " + NEXT_ORDER + ") as rn" +
+                    " from bookings b where b.item_id in (:itemIds) and " + NEXT_CONDITION +
+                    ") a where a.rn = 1";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingView> findBookerPage(int bookerId, BookingState state, LocalDateTime now, int from, int size) {
+        return findPage(BOOKER, bookerId, state, now, null, from, size);
+    }
+
+    @Override
+    public List<BookingView> findOwnerPage(int ownerId, BookingState state, LocalDateTime now, int from, int size) {
+        return findPage(OWNER, ownerId, state, now, null, from, size);
+    }
+
+    @Override
+    public List<BookingView> findBookerPageAfter(int bookerId, BookingState state, LocalDateTime now, BookingCursor cursor, int size) {
+        return findPage(BOOKER, bookerId, state, now, cursor, 0, size);
+    }
+
+    @Override
+    public List<BookingView> findOwnerPageAfter(int ownerId, BookingState state, LocalDateTime now, BookingCursor cursor, int size) {
+        return findPage(OWNER, ownerId, state, now, cursor, 0, size);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<AdjacentBooking> findAdjacentBookings(Collection<Integer> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Object[]> rows = entityManager.createNativeQuery(ADJACENT_WINDOW)
+                .setParameter("itemIds", itemIds)
+                .setParameter("now", now)
+                .setParameter("rejected", BookingStatus.REJECTED.name())
+                .getResultList();
+        return rows.stream()
+                .map(row -> new AdjacentBooking((Boolean) row[0], new BookingSnapshot(
+                        ((Number) row[1]).intValue(),
+                        ((Number) row[2]).intValue(),
+                        ((Number) row[3]).intValue(),
+                        BookingStatus.valueOf((String) row[4]),
+                        ((Timestamp) row[5]).toLocalDateTime(),
+                        ((Timestamp) row[6]).toLocalDateTime()
+                )))
+                .collect(Collectors.toList());
+    }
+
+    private List<BookingView> findPage(
+            String userCondition,
+            int userId,
+            BookingState state,
+            LocalDateTime now,
+            BookingCursor cursor,
+            int offset,
+            int size
+    ) {
+        StringBuilder jpql = new StringBuilder(SELECT_VIEW).append(userCondition);
+        switch (state) {
+            case PAST:
+                jpql.append(" and b.end < :now");
+                break;
+            case FUTURE:
+                jpql.append(" and b.start > :now");
+                break;
+            case CURRENT:
+                jpql.append(" and b.end > :now and b.start < :now");
+                break;
+            case WAITING:
+            case REJECTED:
+                jpql.append(" and b.status = :status");
+                break;
+            default:
+                break;
+        }
+        if (Objects.nonNull(cursor)) {
+            jpql.append(" and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId))");
+        }
+        jpql.append(" order by b.start desc, b.id desc");
+
+        TypedQuery<BookingView> query = entityManager.createQuery(jpql.toString(), BookingView.class)
+                .setParameter("userId", userId)
+                .setFirstResult(offset)
+                .setMaxResults(size);
+        if (Objects.nonNull(cursor)) {
+            query.setParameter("cursorStart", cursor.getStart())
+                    .setParameter("cursorId", cursor.getId());
+        }
+        switch (state) {
+            case PAST:
+            case FUTURE:
+            case CURRENT:
+                query.setParameter("now", now);
+                break;
+            case WAITING:
+                query.setParameter("status", BookingStatus.WAITING);
+                break;
+            case REJECTED:
+                query.setParameter("status", BookingStatus.REJECTED);
+                break;
+            default:
+                break;
+        }
+        return query.getResultList();
+    }
+
+}
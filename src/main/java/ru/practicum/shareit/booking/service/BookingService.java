@@ -1,10 +1,18 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingView;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface BookingService {
 
@@ -12,12 +20,26 @@ public interface BookingService {
 
     Booking createBooking(CreateBookingDto dto, int userId);
 
+    List<BookingBatchResultDto> createBookings(List<CreateBookingDto> dtos, int userId);
+
     Booking approveBooking(int bookingId, boolean approved, int userId);
 
+    List<BookingDecisionResultDto> decideBookings(List<BookingDecisionDto> dtos, int userId);
+
+    int cancelBookings(Collection<Integer> bookingIds);
+
     Booking getBooking(int bookingId, int userId);
 
-    List<Booking> getAllBookingsByBookerId(int userId, BookingState state, int from, int size);
+    List<BookingView> getAllBookingsByBookerId(int userId, BookingState state, int from, int size);
+
+    List<BookingView> getAllBookingsByBookerIdAfter(int userId, BookingState state, String cursor, int size);
+
+    List<BookingView> getAllBookingByItemsByOwnerId(int userId, BookingState state, int from, int size);
+
+    List<BookingView> getAllBookingByItemsByOwnerIdAfter(int userId, BookingState state, String cursor, int size);
+
+    SseEmitter subscribeOwnerBookings(int userId);
 
-    List<Booking> getAllBookingByItemsByOwnerId(int userId, BookingState state, int from, int size);
+    Map<BookingState, Long> getBookingSummary(int userId, BookingRole role);
 
 }
@@ -1,28 +1,46 @@
 package ru.practicum.shareit.booking.service.impl;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.availability.IntervalSet;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.completion.CompletedBookingIndex;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.booking.expiry.BookingExpiryWheel;
+import ru.practicum.shareit.booking.lock.ItemLockManager;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.repository.BookingBatchRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.stream.BookingEvent;
+import ru.practicum.shareit.booking.stream.BookingEventPublisher;
+import ru.practicum.shareit.booking.summary.BookingParticipants;
+import ru.practicum.shareit.booking.summary.BookingSummaryTracker;
 import ru.practicum.shareit.exception.APIBadRequestException;
+import ru.practicum.shareit.exception.APIConflictException;
+import ru.practicum.shareit.exception.APIException;
 import ru.practicum.shareit.exception.APINotFoundException;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -30,7 +48,13 @@ public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
-    private final ItemRepository itemRepository;
+    private final ItemAvailabilityIndex availabilityIndex;
+    private final BookingBatchRepository bookingBatchRepository;
+    private final BookingSummaryTracker bookingSummaryTracker;
+    private final BookingExpiryWheel bookingExpiryWheel;
+    private final ItemLockManager itemLockManager;
+    private final BookingEventPublisher bookingEventPublisher;
+    private final CompletedBookingIndex completedBookingIndex;
 
     @Override
     @Transactional(readOnly = true)
@@ -42,23 +66,12 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional
     public Booking createBooking(CreateBookingDto dto, int userId) {
-        LocalDateTime nowTime = LocalDateTime.now();
-        if (dto.getStart().isBefore(nowTime)) {
-            throw new APIBadRequestException("Дата начала %s находится в прошлом. Время сервера: [%s]", dto.getStart(), nowTime);
-        }
-        if (!dto.getEnd().isAfter(dto.getStart())) {
-            throw new APIBadRequestException("Дата начала %s после либо равна дате окончания %s", dto.getStart(), dto.getEnd());
-        }
+        validatePeriod(dto, LocalDateTime.now());
+        Item item = itemLockManager.lock(dto.getItemId())
+                .orElseThrow(() -> new APINotFoundException("Предмет %d не найден ", dto.getItemId()));
+        validateItem(item, userId);
 
-        Item item = getItemById(dto.getItemId());
-        if (!item.isAvailable()) {
-            throw new APIBadRequestException("Предмет %s недоступен для бронирования", item.getId());
-        }
-        if (item.getOwner().getId().equals(userId)) {
-            throw new APINotFoundException("Предмет %s недоступен для бронирования", item.getId());
-        }
-
-        if (bookingRepository.existsByItem_IdStatusAndStartBetweenOrEndBetween(dto.getItemId(), BookingStatus.APPROVED, dto.getStart(), dto.getEnd())) {
+        if (availabilityIndex.isBooked(item.getId(), dto.getStart(), dto.getEnd())) {
             throw new APINotFoundException("Предмет %s уже забронирован на указанный временной промежуток", item.getId());
         }
 
@@ -67,27 +80,205 @@ public class BookingServiceImpl implements BookingService {
         Booking booking = BookingMapper.toModel(dto, booker, item);
         booking.setStatus(BookingStatus.WAITING);
         booking.setId(null);
-        return bookingRepository.save(booking);
+        Booking savedBooking = bookingRepository.save(booking);
+        bookingSummaryTracker.created(List.of(savedBooking));
+        bookingExpiryWheel.schedule(List.of(savedBooking));
+        bookingEventPublisher.publish(List.of(BookingEvent.created(savedBooking)));
+        return savedBooking;
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createBookings(List<CreateBookingDto> dtos, int userId) {
+        if (Objects.isNull(dtos) || dtos.isEmpty()) {
+            throw new APIBadRequestException("Список бронирований пуст");
+        }
+        User booker = getUserById(userId);
+        Map<Integer, Item> items = itemLockManager.lockAll(dtos.stream()
+                        .filter(Objects::nonNull)
+                        .map(CreateBookingDto::getItemId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Integer, IntervalSet> approvedIntervals = findApprovedIntervals(items.keySet(), dtos);
+
+        LocalDateTime nowTime = LocalDateTime.now();
+        BookingBatchResultDto[] results = new BookingBatchResultDto[dtos.size()];
+        List<Booking> bookings = new ArrayList<>();
+        List<Integer> bookingIndexes = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            CreateBookingDto dto = dtos.get(i);
+            try {
+                if (Objects.isNull(dto) || Objects.isNull(dto.getStart()) || Objects.isNull(dto.getEnd())
+                        || Objects.isNull(dto.getItemId())) {
+                    throw new APIBadRequestException("Не заполнены обязательные поля бронирования");
+                }
+                validatePeriod(dto, nowTime);
+                Item item = items.get(dto.getItemId());
+                if (Objects.isNull(item)) {
+                    throw new APINotFoundException("Предмет %d не найден ", dto.getItemId());
+                }
+                validateItem(item, userId);
+                IntervalSet intervals = approvedIntervals.get(item.getId());
+                if (Objects.nonNull(intervals) && intervals.overlaps(dto.getStart(), dto.getEnd())) {
+                    throw new APINotFoundException("Предмет %s уже забронирован на указанный временной промежуток", item.getId());
+                }
+                Booking booking = BookingMapper.toModel(dto, booker, item);
+                booking.setStatus(BookingStatus.WAITING);
+                bookings.add(booking);
+                bookingIndexes.add(i);
+            } catch (APIException e) {
+                results[i] = BookingBatchResultDto.builder()
+                        .index(i)
+                        .success(false)
+                        .error(e.getMessage())
+                        .build();
+            }
+        }
+
+        bookingBatchRepository.insertAll(bookings);
+        bookingSummaryTracker.created(bookings);
+        bookingExpiryWheel.schedule(bookings);
+        bookingEventPublisher.publish(bookings.stream().map(BookingEvent::created).collect(Collectors.toList()));
+        for (int i = 0; i < bookings.size(); i++) {
+            int index = bookingIndexes.get(i);
+            results[index] = BookingBatchResultDto.builder()
+                    .index(index)
+                    .success(true)
+                    .booking(BookingMapper.toDto(bookings.get(i)))
+                    .build();
+        }
+        return Arrays.asList(results);
     }
 
     @Override
     @Transactional
     public Booking approveBooking(int bookingId, boolean approved, int userId) {
-        Booking booking = getBookingById(bookingId);
+        int itemId = bookingRepository.findItemIdById(bookingId)
+                .orElseThrow(() -> new APINotFoundException("Бронирование id %d не найдено", bookingId));
+        itemLockManager.lock(itemId);
+        Booking booking = bookingRepository.findByIdForUpdate(bookingId)
+                .orElseThrow(() -> new APINotFoundException("Бронирование id %d не найдено", bookingId));
         if (!booking.getItem().getOwner().getId().equals(userId)) {
             throw new APINotFoundException("Бронирование %d не найдено", bookingId);
         }
         if (booking.getStatus() != BookingStatus.WAITING) {
             throw new APIBadRequestException("Бронирование %d не находится в статусе ожидания", bookingId);
         }
+        if (approved && bookingRepository.existsByItem_IdAndStatusAndStartBeforeAndEndAfter(
+                itemId, BookingStatus.APPROVED, booking.getEnd(), booking.getStart())) {
+            throw new APIConflictException("Бронирование %d пересекается с подтверждённым бронированием предмета %d",
+                    bookingId, itemId);
+        }
         if (approved) {
             booking.setStatus(BookingStatus.APPROVED);
+            availabilityIndex.addApproved(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+            completedBookingIndex.addApproved(booking.getItem().getId(), booking.getBooker().getId(), booking.getEnd());
         } else {
             booking.setStatus(BookingStatus.REJECTED);
         }
+        bookingSummaryTracker.statusChanged(List.of(BookingParticipants.of(booking)), BookingStatus.WAITING, booking.getStatus());
+        bookingEventPublisher.publish(List.of(BookingEvent.statusChanged(userId, BookingMapper.toShortBookingDto(booking))));
         return booking;
     }
 
+    @Override
+    @Transactional
+    public List<BookingDecisionResultDto> decideBookings(List<BookingDecisionDto> dtos, int userId) {
+        if (Objects.isNull(dtos) || dtos.isEmpty()) {
+            throw new APIBadRequestException("Список решений пуст");
+        }
+        Set<Integer> bookingIds = dtos.stream()
+                .filter(Objects::nonNull)
+                .map(BookingDecisionDto::getBookingId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Integer, BookingSnapshot> snapshots = lockSnapshots(bookingIds, userId);
+        Map<Integer, IntervalSet> approvedIntervals = findApprovedIntervals(dtos.stream()
+                .filter(dto -> Objects.nonNull(dto) && Boolean.TRUE.equals(dto.getApproved()))
+                .map(dto -> snapshots.get(dto.getBookingId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+
+        List<BookingDecisionResultDto> results = new ArrayList<>(dtos.size());
+        Set<Integer> decided = new HashSet<>();
+        List<BookingSnapshot> approved = new ArrayList<>();
+        List<BookingSnapshot> rejected = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            BookingDecisionDto dto = dtos.get(i);
+            try {
+                if (Objects.isNull(dto) || Objects.isNull(dto.getBookingId()) || Objects.isNull(dto.getApproved())) {
+                    throw new APIBadRequestException("Не заполнены обязательные поля решения");
+                }
+                BookingSnapshot snapshot = snapshots.get(dto.getBookingId());
+                if (Objects.isNull(snapshot)) {
+                    throw new APINotFoundException("Бронирование %d не найдено", dto.getBookingId());
+                }
+                if (!decided.add(snapshot.getId())) {
+                    throw new APIBadRequestException("Решение по бронированию %d указано повторно", snapshot.getId());
+                }
+                if (snapshot.getStatus() != BookingStatus.WAITING) {
+                    throw new APIBadRequestException("Бронирование %d не находится в статусе ожидания", snapshot.getId());
+                }
+                BookingStatus status;
+                if (dto.getApproved()) {
+                    IntervalSet intervals = approvedIntervals.computeIfAbsent(snapshot.getItemId(), id -> new IntervalSet());
+                    if (intervals.overlaps(snapshot.getStart(), snapshot.getEnd())) {
+                        throw new APIConflictException("Бронирование %d пересекается с подтверждённым бронированием предмета %d",
+                                snapshot.getId(), snapshot.getItemId());
+                    }
+                    intervals.add(snapshot.getStart(), snapshot.getEnd());
+                    approved.add(snapshot);
+                    status = BookingStatus.APPROVED;
+                } else {
+                    rejected.add(snapshot);
+                    status = BookingStatus.REJECTED;
+                }
+                results.add(BookingDecisionResultDto.builder()
+                        .index(i)
+                        .success(true)
+                        .booking(BookingMapper.toShortBookingDto(snapshot, status))
+                        .build());
+            } catch (APIException e) {
+                results.add(BookingDecisionResultDto.builder()
+                        .index(i)
+                        .success(false)
+                        .error(e.getMessage())
+                        .build());
+            }
+        }
+
+        applyDecisions(approved, BookingStatus.APPROVED, userId);
+        applyDecisions(rejected, BookingStatus.REJECTED, userId);
+        approved.forEach(snapshot -> {
+            availabilityIndex.addApproved(snapshot.getItemId(), snapshot.getStart(), snapshot.getEnd());
+            completedBookingIndex.addApproved(snapshot.getItemId(), snapshot.getBookerId(), snapshot.getEnd());
+        });
+        return results;
+    }
+
+    @Override
+    @Transactional
+    public int cancelBookings(Collection<Integer> bookingIds) {
+        List<BookingParticipants> bookings = bookingRepository.findParticipantsForUpdate(bookingIds, BookingStatus.WAITING);
+        if (bookings.isEmpty()) {
+            return 0;
+        }
+        bookingRepository.updateStatus(bookings.stream()
+                .map(BookingParticipants::getBookingId)
+                .collect(Collectors.toList()), BookingStatus.CANCELED);
+        bookingSummaryTracker.statusChanged(bookings, BookingStatus.WAITING, BookingStatus.CANCELED);
+        bookingEventPublisher.publish(bookings.stream()
+                .map(booking -> BookingEvent.statusChanged(booking.getOwnerId(), ShortBookingDto.builder()
+                        .id(booking.getBookingId())
+                        .bookerId(booking.getBookerId())
+                        .status(BookingStatus.CANCELED)
+                        .build()))
+                .collect(Collectors.toList()));
+        return bookings.size();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Booking getBooking(int bookingId, int userId) {
@@ -102,71 +293,133 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<Booking> getAllBookingsByBookerId(int userId, BookingState state, int from, int size) {
+    public List<BookingView> getAllBookingsByBookerId(int userId, BookingState state, int from, int size) {
+        List<BookingView> bookings = bookingRepository.findBookerPage(userId, state, LocalDateTime.now(), from, size);
+        checkUserExists(bookings, userId);
+        return bookings;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingView> getAllBookingsByBookerIdAfter(int userId, BookingState state, String cursor, int size) {
+        BookingCursor bookingCursor = BookingCursor.decode(cursor);
+        List<BookingView> bookings = bookingRepository.findBookerPageAfter(userId, state, LocalDateTime.now(), bookingCursor, size);
+        checkUserExists(bookings, userId);
+        return bookings;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingView> getAllBookingByItemsByOwnerId(int userId, BookingState state, int from, int size) {
+        List<BookingView> bookings = bookingRepository.findOwnerPage(userId, state, LocalDateTime.now(), from, size);
+        checkUserExists(bookings, userId);
+        return bookings;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingView> getAllBookingByItemsByOwnerIdAfter(int userId, BookingState state, String cursor, int size) {
+        BookingCursor bookingCursor = BookingCursor.decode(cursor);
+        List<BookingView> bookings = bookingRepository.findOwnerPageAfter(userId, state, LocalDateTime.now(), bookingCursor, size);
+        checkUserExists(bookings, userId);
+        return bookings;
+    }
+
+    @Override
+    public SseEmitter subscribeOwnerBookings(int userId) {
         if (!userRepository.existsById(userId)) {
             throw new APINotFoundException("Пользователь %d не найден", userId);
         }
-
-        List<Booking> bookings;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        Pageable pageable = PageRequest.of(from / size, size, sort);
-        LocalDateTime nowTime = LocalDateTime.now();
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findAllByBookerId(userId, pageable);
-                break;
-            case PAST:
-                bookings = bookingRepository.findByBookerIdAndEndBefore(userId, nowTime, pageable);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findByBookerIdAndStartAfter(userId, nowTime, pageable);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findByBookerIdAndEndIsAfterAndStartIsBefore(userId, nowTime, nowTime, pageable);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllByBookerIdAndStatus(userId, BookingStatus.WAITING, pageable);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllByBookerIdAndStatus(userId, BookingStatus.REJECTED, pageable);
-                break;
-            default:
-                return Collections.emptyList();
-        }
-        return bookings;
+        return bookingEventPublisher.subscribe(userId);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Booking> getAllBookingByItemsByOwnerId(int userId, BookingState state, int from, int size) {
+    public Map<BookingState, Long> getBookingSummary(int userId, BookingRole role) {
         if (!userRepository.existsById(userId)) {
-            throw new APINotFoundException("Пользователь %s не найден", userId);
+            throw new APINotFoundException("Пользователь %d не найден", userId);
         }
+        return bookingSummaryTracker.getSummary(userId, role);
+    }
 
-        List<Booking> bookings;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        Pageable pageable = PageRequest.of(from / size, size, sort);
-        LocalDateTime nowTime = LocalDateTime.now();
-        switch (state) {
-            case PAST:
-                bookings = bookingRepository.bookingsForItemPast(userId, nowTime, pageable);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.bookingsForItemFuture(userId, nowTime, pageable);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.bookingsForItemCurrent(userId, nowTime, pageable);
-                break;
-            case WAITING:
-                bookings = bookingRepository.bookingsByItemOwnerAndStatus(userId, BookingStatus.WAITING, pageable);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.bookingsByItemOwnerAndStatus(userId, BookingStatus.REJECTED, pageable);
-                break;
-            default:
-                bookings = bookingRepository.bookingsForItem(userId, pageable);
+    private Map<Integer, IntervalSet> findApprovedIntervals(Collection<Integer> itemIds, List<CreateBookingDto> dtos) {
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        for (CreateBookingDto dto : dtos) {
+            if (Objects.isNull(dto) || Objects.isNull(dto.getStart()) || Objects.isNull(dto.getEnd())) {
+                continue;
+            }
+            if (Objects.isNull(from) || dto.getStart().isBefore(from)) {
+                from = dto.getStart();
+            }
+            if (Objects.isNull(to) || dto.getEnd().isAfter(to)) {
+                to = dto.getEnd();
+            }
+        }
+        return findApprovedIntervals(itemIds, from, to);
+    }
+
+    private Map<Integer, IntervalSet> findApprovedIntervals(List<BookingSnapshot> snapshots) {
+        LocalDateTime from = snapshots.stream().map(BookingSnapshot::getStart).min(Comparator.naturalOrder()).orElse(null);
+        LocalDateTime to = snapshots.stream().map(BookingSnapshot::getEnd).max(Comparator.naturalOrder()).orElse(null);
+        return findApprovedIntervals(snapshots.stream()
+                .map(BookingSnapshot::getItemId)
+                .collect(Collectors.toSet()), from, to);
+    }
+
+    private Map<Integer, IntervalSet> findApprovedIntervals(Collection<Integer> itemIds, LocalDateTime from, LocalDateTime to) {
+        Map<Integer, IntervalSet> intervals = new HashMap<>();
+        if (itemIds.isEmpty() || Objects.isNull(from) || !to.isAfter(from)) {
+            return intervals;
+        }
+        bookingRepository.findIntervalsByItemIdInAndStatusInPeriod(itemIds, BookingStatus.APPROVED, from, to)
+                .forEach(interval -> intervals.computeIfAbsent(interval.getItemId(), id -> new IntervalSet())
+                        .add(interval.getStart(), interval.getEnd()));
+        return intervals;
+    }
+
+    // без id нечего блокировать и читать, каждое решение получит ошибку незаполненных полей
+    private Map<Integer, BookingSnapshot> lockSnapshots(Set<Integer> bookingIds, int ownerId) {
+        if (bookingIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        itemLockManager.lockAll(bookingRepository.findItemIdsByIdInAndOwnerId(bookingIds, ownerId));
+        return bookingRepository.findSnapshotsForUpdate(bookingIds, ownerId)
+                .stream()
+                .collect(Collectors.toMap(BookingSnapshot::getId, Function.identity()));
+    }
+
+    private void applyDecisions(List<BookingSnapshot> snapshots, BookingStatus status, int ownerId) {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        bookingRepository.updateStatus(snapshots.stream()
+                .map(BookingSnapshot::getId)
+                .collect(Collectors.toList()), status);
+        bookingSummaryTracker.statusChanged(snapshots.stream()
+                .map(snapshot -> new BookingParticipants(snapshot.getId(), snapshot.getBookerId(), ownerId))
+                .collect(Collectors.toList()), BookingStatus.WAITING, status);
+        bookingEventPublisher.publish(snapshots.stream()
+                .map(snapshot -> BookingEvent.statusChanged(ownerId, BookingMapper.toShortBookingDto(snapshot, status)))
+                .collect(Collectors.toList()));
+    }
+
+    private void validatePeriod(CreateBookingDto dto, LocalDateTime nowTime) {
+        if (dto.getStart().isBefore(nowTime)) {
+            throw new APIBadRequestException("Дата начала %s находится в прошлом. Время сервера: [%s]", dto.getStart(), nowTime);
+        }
+        if (!dto.getEnd().isAfter(dto.getStart())) {
+            throw new APIBadRequestException("Дата начала %s после либо равна дате окончания %s", dto.getStart(), dto.getEnd());
+        }
+    }
+
+    private void validateItem(Item item, int userId) {
+        if (!item.isAvailable()) {
+            throw new APIBadRequestException("Предмет %s недоступен для бронирования", item.getId());
+        }
+        if (item.getOwner().getId().equals(userId)) {
+            throw new APINotFoundException("Предмет %s недоступен для бронирования", item.getId());
         }
-        return bookings;
     }
 
     private User getUserById(int userId) {
@@ -174,9 +427,11 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new APINotFoundException("Пользователь id %d не найден", userId));
     }
 
-    private Item getItemById(int itemId) {
-        return itemRepository.findById(itemId)
-                .orElseThrow(() -> new APINotFoundException("Предмет %d не найден ", itemId));
+    // непустая страница уже доказывает существование пользователя, лишний запрос нужен только для пустой
+    private void checkUserExists(List<BookingView> page, int userId) {
+        if (page.isEmpty() && !userRepository.existsById(userId)) {
+            throw new APINotFoundException("Пользователь %d не найден", userId);
+        }
     }
 
 }
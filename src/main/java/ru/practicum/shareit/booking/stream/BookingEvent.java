@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.stream;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class BookingEvent {
+
+    private final int ownerId;
+    private final BookingEventType type;
+    private final ShortBookingDto booking;
+
+    public static BookingEvent created(Booking booking) {
+        return new BookingEvent(booking.getItem().getOwner().getId(), BookingEventType.CREATED,
+                BookingMapper.toShortBookingDto(booking));
+    }
+
+    public static BookingEvent statusChanged(int ownerId, ShortBookingDto booking) {
+        return new BookingEvent(ownerId, BookingEventType.STATUS_CHANGED, booking);
+    }
+
+}
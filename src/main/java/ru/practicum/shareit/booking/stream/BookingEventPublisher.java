@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking.stream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.util.TransactionUtils;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Slf4j
+@Component
+public class BookingEventPublisher {
+
+    private final Map<Integer, Set<BookingSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Duration timeout;
+    private final int bufferSize;
+    private final ExecutorService executor;
+
+    public BookingEventPublisher(
+            @Value("${shareit.booking.stream.timeout:PT30M}") Duration timeout,
+            @Value("${shareit.booking.stream.buffer-size:128}") int bufferSize,
+            @Value("${shareit.booking.stream.threads:2}") int threads
+    ) {
+        this.timeout = timeout;
+        this.bufferSize = bufferSize;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("booking-stream-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newFixedThreadPool(threads, threadFactory);
+    }
+
+    public SseEmitter subscribe(int ownerId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        BookingSubscriber subscriber = new BookingSubscriber(ownerId, emitter, bufferSize, executor);
+        subscribers.compute(ownerId, (id, set) -> {
+            Set<BookingSubscriber> result = set == null ? ConcurrentHashMap.newKeySet() : set;
+            result.add(subscriber);
+            return result;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        return emitter;
+    }
+
+    public void publish(Collection<BookingEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> events.forEach(this::dispatch));
+    }
+
+    public int getSubscriberCount(int ownerId) {
+        return subscribers.getOrDefault(ownerId, Collections.emptySet()).size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(BookingSubscriber::close));
+        subscribers.clear();
+        executor.shutdownNow();
+    }
+
+    private void dispatch(BookingEvent event) {
+        Set<BookingSubscriber> owners = subscribers.get(event.getOwnerId());
+        if (owners == null) {
+            return;
+        }
+        for (BookingSubscriber subscriber : owners) {
+            if (!subscriber.offer(event)) {
+                // медленный клиент: закрываем поток, он переподключится и перечитает список
+                log.warn("Booking stream of owner {} overflowed, closing", subscriber.getOwnerId());
+                subscriber.close();
+                unsubscribe(subscriber);
+            }
+        }
+    }
+
+    private void unsubscribe(BookingSubscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.getOwnerId(), (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.booking.stream;
+
+public enum BookingEventType {
+    CREATED,
+    STATUS_CHANGED
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking.stream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+class BookingSubscriber {
+
+    private final int ownerId;
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final Executor executor;
+    private final Queue<BookingEvent> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    BookingSubscriber(int ownerId, SseEmitter emitter, int capacity, Executor executor) {
+        this.ownerId = ownerId;
+        this.emitter = emitter;
+        this.capacity = capacity;
+        this.executor = executor;
+    }
+
+    int getOwnerId() {
+        return ownerId;
+    }
+
+    /**
+     * Кладёт событие в буфер, не блокируя публикующий поток.
+     * Возвращает false, только если подписчик не успевает читать и буфер переполнен.
+     */
+    boolean offer(BookingEvent event) {
+        if (closed.get()) {
+            return true;
+        }
+        if (buffered.incrementAndGet() > capacity) {
+            buffered.decrementAndGet();
+            return false;
+        }
+        buffer.add(event);
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+        return true;
+    }
+
+    void close() {
+        if (closed.compareAndSet(false, true)) {
+            buffer.clear();
+            emitter.complete();
+        }
+    }
+
+    private void drain() {
+        do {
+            for (BookingEvent event = buffer.poll(); event != null; event = buffer.poll()) {
+                buffered.decrementAndGet();
+                if (closed.get()) {
+                    continue;
+                }
+                try {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.getBooking().getId()))
+                            .name(event.getType().name())
+                            .data(event.getBooking()));
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Booking stream of owner {} is closed: {}", ownerId, e.getMessage());
+                    if (closed.compareAndSet(false, true)) {
+                        emitter.completeWithError(e);
+                    }
+                }
+            }
+            draining.set(false);
+            // событие могло прийти между последним poll и сбросом флага
+        } while (!buffer.isEmpty() && draining.compareAndSet(false, true));
+    }
+
+}
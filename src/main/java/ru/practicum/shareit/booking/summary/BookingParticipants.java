@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.model.Booking;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class BookingParticipants {
+
+    private final Integer bookingId;
+    private final Integer bookerId;
+    private final Integer ownerId;
+
+    public static BookingParticipants of(Booking booking) {
+        return new BookingParticipants(booking.getId(), booking.getBooker().getId(), booking.getItem().getOwner().getId());
+    }
+
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class BookingPeriod {
+
+    private final Integer bookingId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.booking.summary;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingCounterRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.util.TransactionUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сводка бронирований пользователя. Счётчики по статусам хранятся в базе, а для разбиения на прошедшие,
+ * текущие и будущие нужны даты, поэтому срезы дат загружаются по требованию в кэш, ограниченный
+ * суммарным числом бронирований в нём, и сбрасываются при новых бронированиях пользователя.
+ */
+@Component
+public class BookingSummaryTracker {
+
+    static final String BOOKER_NAME = "bookings.timeline.booker";
+    static final String OWNER_NAME = "bookings.timeline.owner";
+
+    private final BookingRepository bookingRepository;
+    private final BookingCounterRepository bookingCounterRepository;
+    private final Cache<Integer, BookingTimeline> bookerTimelines;
+    private final Cache<Integer, BookingTimeline> ownerTimelines;
+
+    public BookingSummaryTracker(
+            BookingRepository bookingRepository,
+            BookingCounterRepository bookingCounterRepository,
+            @Value("${shareit.booking.summary.cache-bookings:1000000}") long maxBookings,
+            @Value("${shareit.booking.summary.ttl:PT10M}") Duration ttl,
+            MeterRegistry meterRegistry
+    ) {
+        this.bookingRepository = bookingRepository;
+        this.bookingCounterRepository = bookingCounterRepository;
+        this.bookerTimelines = timelines(maxBookings, ttl);
+        this.ownerTimelines = timelines(maxBookings, ttl);
+        CaffeineCacheMetrics.monitor(meterRegistry, bookerTimelines, BOOKER_NAME);
+        CaffeineCacheMetrics.monitor(meterRegistry, ownerTimelines, OWNER_NAME);
+    }
+
+    public void created(Collection<Booking> bookings) {
+        increment(bookings, BookingRole.BOOKER, booking -> booking.getBooker().getId());
+        increment(bookings, BookingRole.OWNER, booking -> booking.getItem().getOwner().getId());
+        Set<Integer> bookerIds = bookings.stream().map(booking -> booking.getBooker().getId()).collect(Collectors.toSet());
+        Set<Integer> ownerIds = bookings.stream().map(booking -> booking.getItem().getOwner().getId())
+                .collect(Collectors.toSet());
+        TransactionUtils.afterCommit(() -> {
+            bookerTimelines.invalidateAll(bookerIds);
+            ownerTimelines.invalidateAll(ownerIds);
+        });
+    }
+
+    public void statusChanged(Collection<BookingParticipants> bookings, BookingStatus previous, BookingStatus status) {
+        bookings.stream()
+                .collect(Collectors.groupingBy(BookingParticipants::getBookerId, Collectors.summingInt(booking -> 1)))
+                .forEach((bookerId, count) -> move(bookerId, BookingRole.BOOKER, previous, status, count));
+        bookings.stream()
+                .collect(Collectors.groupingBy(BookingParticipants::getOwnerId, Collectors.summingInt(booking -> 1)))
+                .forEach((ownerId, count) -> move(ownerId, BookingRole.OWNER, previous, status, count));
+    }
+
+    public void refresh(Collection<Integer> userIds) {
+        userIds.forEach(bookingCounterRepository::rebuild);
+        TransactionUtils.afterCommit(() -> {
+            bookerTimelines.invalidateAll(userIds);
+            ownerTimelines.invalidateAll(userIds);
+        });
+    }
+
+    public Map<BookingState, Long> getSummary(int userId, BookingRole role) {
+        Map<BookingStatus, Long> counts = bookingCounterRepository.findCounts(userId, role);
+        BookingTimeline timeline = role == BookingRole.BOOKER
+                ? timeline(bookerTimelines, userId, id -> BookingTimeline.of(bookingRepository.findPeriodsByBookerId(id)))
+                : timeline(ownerTimelines, userId, id -> BookingTimeline.of(bookingRepository.findPeriodsByOwnerId(id)));
+        LocalDateTime nowTime = LocalDateTime.now();
+
+        Map<BookingState, Long> summary = new EnumMap<>(BookingState.class);
+        summary.put(BookingState.ALL, counts.values().stream().mapToLong(Long::longValue).sum());
+        summary.put(BookingState.CURRENT, timeline.countCurrent(nowTime));
+        summary.put(BookingState.PAST, timeline.countPast(nowTime));
+        summary.put(BookingState.FUTURE, timeline.countFuture(nowTime));
+        summary.put(BookingState.WAITING, counts.getOrDefault(BookingStatus.WAITING, 0L));
+        summary.put(BookingState.REJECTED, counts.getOrDefault(BookingStatus.REJECTED, 0L));
+        return summary;
+    }
+
+    private void increment(Collection<Booking> bookings, BookingRole role, Function<Booking, Integer> userId) {
+        bookings.stream()
+                .collect(Collectors.groupingBy(userId,
+                        Collectors.groupingBy(Booking::getStatus, Collectors.summingInt(booking -> 1))))
+                .forEach((id, counts) -> counts.forEach((status, count) ->
+                        bookingCounterRepository.increment(id, role, status, count)));
+    }
+
+    private void move(int userId, BookingRole role, BookingStatus previous, BookingStatus status, int count) {
+        bookingCounterRepository.increment(userId, role, previous, -count);
+        bookingCounterRepository.increment(userId, role, status, count);
+    }
+
+    private static BookingTimeline timeline(
+            Cache<Integer, BookingTimeline> timelines,
+            int userId,
+            Function<Integer, BookingTimeline> loader
+    ) {
+        if (TransactionUtils.isReadWrite()) {
+            return loader.apply(userId);
+        }
+        return timelines.get(userId, loader);
+    }
+
+    private static Cache<Integer, BookingTimeline> timelines(long maxBookings, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maxBookings)
+                .weigher((Integer userId, BookingTimeline timeline) -> timeline.size() + 1)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+    }
+
+}
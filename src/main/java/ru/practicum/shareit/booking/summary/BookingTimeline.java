@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking.summary;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Неизменяемый срез начал и окончаний бронирований пользователя. Строится целиком из базы
+ * и заменяется новым при изменениях, поэтому вставок в отсортированные массивы нет.
+ */
+public class BookingTimeline {
+
+    private final LocalDateTime[] starts;
+    private final LocalDateTime[] ends;
+
+    private BookingTimeline(LocalDateTime[] starts, LocalDateTime[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    public static BookingTimeline of(Collection<BookingPeriod> periods) {
+        LocalDateTime[] starts = periods.stream().map(BookingPeriod::getStart).toArray(LocalDateTime[]::new);
+        LocalDateTime[] ends = periods.stream().map(BookingPeriod::getEnd).toArray(LocalDateTime[]::new);
+        Arrays.sort(starts);
+        Arrays.sort(ends);
+        return new BookingTimeline(starts, ends);
+    }
+
+    public long countPast(LocalDateTime now) {
+        return countBefore(ends, now);
+    }
+
+    public long countFuture(LocalDateTime now) {
+        return starts.length - countNotAfter(starts, now);
+    }
+
+    // Каждое завершившееся бронирование уже началось, поэтому текущие - это начавшиеся минус завершившиеся
+    public long countCurrent(LocalDateTime now) {
+        return countBefore(starts, now) - countNotAfter(ends, now);
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    private static int countBefore(LocalDateTime[] sorted, LocalDateTime value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle].isBefore(value)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int countNotAfter(LocalDateTime[] sorted, LocalDateTime value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle].isAfter(value)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+}
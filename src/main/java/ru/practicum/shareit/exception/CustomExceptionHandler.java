@@ -2,6 +2,7 @@ package ru.practicum.shareit.exception;
 
 import lombok.extern.log4j.Log4j2;
 import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
@@ -24,7 +25,7 @@ public class CustomExceptionHandler {
         return new AbstractMap.SimpleEntry<>("error", e.getMessage());
     }
 
-    @ExceptionHandler({APIConflictException.class, ConstraintViolationException.class})
+    @ExceptionHandler({APIConflictException.class, ConstraintViolationException.class, ConcurrencyFailureException.class})
     @ResponseStatus(HttpStatus.CONFLICT)
     public Map.Entry<String, String> handleConflictException(Exception e) {
         return new AbstractMap.SimpleEntry<>("error", e.getMessage());
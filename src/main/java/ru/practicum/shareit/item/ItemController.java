@@ -2,22 +2,31 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.imports.ItemImportFormat;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentCursor;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.SearchOrder;
 import ru.practicum.shareit.item.service.ItemService;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
@@ -27,6 +36,8 @@ import java.util.stream.Collectors;
 @Validated
 public class ItemController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ItemService itemService;
 
     @PostMapping
@@ -38,6 +49,16 @@ public class ItemController {
         return ItemMapper.toItemDto(item);
     }
 
+    @PostMapping("/import")
+    public ItemImportReportDto importItems(
+            InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestHeader("X-Sharer-User-Id") int userId
+    ) {
+        log.info("user {} import items {}", userId, contentType);
+        return itemService.importItems(userId, ItemImportFormat.of(contentType), body);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto editItem(
             @PathVariable @PositiveOrZero int itemId,
@@ -64,6 +85,17 @@ public class ItemController {
         return itemService.getItemBookingById(itemId, userId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(
+            @PathVariable @PositiveOrZero int itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader("X-Sharer-User-Id") int userId
+    ) {
+        log.info("user {} get availability of item {} {} {}", userId, itemId, from, to);
+        return itemService.getAvailability(itemId, from, to);
+    }
+
     @GetMapping
     public Collection<ItemBookingDto> getAll(
             @RequestHeader("X-Sharer-User-Id") int userId,
@@ -78,14 +110,38 @@ public class ItemController {
     public List<ItemDto> search(
             @RequestParam String text,
             @RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestParam(defaultValue = "ID") SearchOrder order,
             @RequestParam(defaultValue = "0") @Min(0) int from,
             @RequestParam(defaultValue = "10") @Min(1) int size
     ) {
-        log.info("user {} search item {} {} {}", userId, text, from, size);
-        List<Item> items = itemService.search(text, from, size);
-        return items.stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
+        log.info("user {} search item {} {} {} {}", userId, text, order, from, size);
+        return itemService.search(text, order, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggest(
+            @RequestParam String prefix,
+            @RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(50) int size
+    ) {
+        log.info("user {} suggest item names {} {}", userId, prefix, size);
+        return itemService.suggest(prefix, size);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(
+            @PathVariable @PositiveOrZero int itemId,
+            @RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestParam(defaultValue = "10") @Min(1) int size,
+            @RequestParam(required = false) String cursor
+    ) {
+        log.info("user {} get comments of item {} {} {}", userId, itemId, size, cursor);
+        List<CommentDto> comments = itemService.getComments(itemId, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (comments.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, CommentCursor.of(comments.get(comments.size() - 1)).encode());
+        }
+        return response.body(comments);
     }
 
     @PostMapping("{itemId}/comment")
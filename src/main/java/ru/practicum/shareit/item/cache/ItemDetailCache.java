@@ -0,0 +1,126 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.item.dto.ItemBookingCommentDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.util.TransactionUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Кэш карточки предмета. Просмотр без бронирований живёт до изменения предмета, его комментариев
+ * или имён авторов, но не дольше ttl на случай изменений в обход сервисов. Просмотр владельца
+ * с последним и следующим бронированием живёт не дольше ownerTtl и не дольше начала следующего
+ * бронирования, после которого он перестаёт быть верным.
+ */
+@Component
+public class ItemDetailCache {
+
+    static final String NAME = "items.detail";
+    static final String OWNER_NAME = "items.detail.owner";
+
+    private final Cache<Integer, ItemBookingCommentDto> views;
+    private final Cache<Integer, ItemBookingCommentDto> ownerViews;
+
+    public ItemDetailCache(
+            @Value("${shareit.item.detail.cache-size:10000}") long size,
+            @Value("${shareit.item.detail.ttl:PT10M}") Duration ttl,
+            @Value("${shareit.item.detail.owner-ttl:PT10S}") Duration ownerTtl,
+            MeterRegistry meterRegistry
+    ) {
+        this.views = Caffeine.newBuilder()
+                .maximumSize(size)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.ownerViews = Caffeine.newBuilder()
+                .maximumSize(size)
+                .expireAfter(new OwnerViewExpiry(ownerTtl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, views, NAME);
+        CaffeineCacheMetrics.monitor(meterRegistry, ownerViews, OWNER_NAME);
+    }
+
+    public ItemBookingCommentDto getView(int itemId, Supplier<ItemBookingCommentDto> loader) {
+        return get(views, itemId, loader);
+    }
+
+    public ItemBookingCommentDto getOwnerView(int itemId, Supplier<ItemBookingCommentDto> loader) {
+        return get(ownerViews, itemId, loader);
+    }
+
+    public void invalidate(Collection<Integer> itemIds) {
+        views.invalidateAll(itemIds);
+        ownerViews.invalidateAll(itemIds);
+    }
+
+    public void invalidate(int itemId) {
+        invalidate(List.of(itemId));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onItemChanged(ItemChangedEvent event) {
+        invalidate(event.getChangedCardIds());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserDeleted(UserDeletedEvent event) {
+        invalidate(event.getChangedCardIds());
+    }
+
+    private static ItemBookingCommentDto get(
+            Cache<Integer, ItemBookingCommentDto> cache,
+            int itemId,
+            Supplier<ItemBookingCommentDto> loader
+    ) {
+        if (TransactionUtils.isReadWrite()) {
+            return loader.get();
+        }
+        return cache.get(itemId, id -> loader.get());
+    }
+
+    private static class OwnerViewExpiry implements Expiry<Integer, ItemBookingCommentDto> {
+        private final long ttlNanos;
+
+        private OwnerViewExpiry(Duration ttl) {
+            this.ttlNanos = ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Integer itemId, ItemBookingCommentDto view, long currentTime) {
+            ShortBookingDto next = view.getNextBooking();
+            if (Objects.isNull(next) || Objects.isNull(next.getStart())) {
+                return ttlNanos;
+            }
+            long untilNext = Duration.between(LocalDateTime.now(), next.getStart()).toNanos();
+            return Math.max(0, Math.min(ttlNanos, untilNext));
+        }
+
+        @Override
+        public long expireAfterUpdate(Integer itemId, ItemBookingCommentDto view, long currentTime, long currentDuration) {
+            return expireAfterCreate(itemId, view, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Integer itemId, ItemBookingCommentDto view, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+}
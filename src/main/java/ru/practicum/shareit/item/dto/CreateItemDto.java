@@ -4,6 +4,7 @@ import lombok.*;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
 
 @Getter
 @Setter
@@ -14,10 +15,12 @@ public class CreateItemDto {
 
     @NotNull
     @NotBlank
+    @Size(max = 255)
     private String name;
 
     @NotNull
     @NotBlank
+    @Size(max = 512)
     private String description;
 
     @NotNull
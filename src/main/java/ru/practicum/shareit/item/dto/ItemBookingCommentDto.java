@@ -9,7 +9,7 @@ import java.util.Collection;
 @Setter
 @ToString
 @EqualsAndHashCode
-@Builder
+@Builder(toBuilder = true)
 public class ItemBookingCommentDto {
 
     private Integer id;
@@ -18,6 +18,7 @@ public class ItemBookingCommentDto {
     private Boolean available;
     private Integer ownerId;
     private Integer requestId;
+    private Long commentCount;
     @ToString.Exclude
     private ShortBookingDto lastBooking;
     @ToString.Exclude
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+public class ItemImportReportDto {
+
+    private Integer lines;
+    private Integer imported;
+    private Integer rejected;
+    private List<RejectedLineDto> rejectedLines;
+
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class TimeSlotDto {
+
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+}
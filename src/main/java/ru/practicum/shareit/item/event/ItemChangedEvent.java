@@ -0,0 +1,94 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.matching.RequestDocument;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Изменение предметов. Публикуется внутри пишущей транзакции, индексы и кэши обрабатывают его после коммита.
+ */
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ItemChangedEvent {
+
+    private final List<Item> created;
+    private final List<Item> updated;
+    private final List<Item> removed;
+    // запросы, у которых не осталось предметов, снова открыты для подбора
+    private final List<RequestDocument> reopenedRequests;
+    // карточки, у которых изменились комментарии или имена их авторов
+    private final Set<Integer> commentedItemIds;
+    // предметы пришли массовым импортом
+    private final boolean imported;
+
+    public static ItemChangedEvent created(List<Item> items) {
+        return new ItemChangedEvent(items, List.of(), List.of(), List.of(), Set.of(), false);
+    }
+
+    public static ItemChangedEvent imported(List<Item> items) {
+        return new ItemChangedEvent(items, List.of(), List.of(), List.of(), Set.of(), true);
+    }
+
+    public static ItemChangedEvent updated(Item item) {
+        return new ItemChangedEvent(List.of(), List.of(item), List.of(), List.of(), Set.of(), false);
+    }
+
+    public static ItemChangedEvent removed(Item item, RequestDocument reopenedRequest) {
+        List<RequestDocument> reopened = Objects.isNull(reopenedRequest) ? List.of() : List.of(reopenedRequest);
+        return new ItemChangedEvent(List.of(), List.of(), List.of(item), reopened, Set.of(), false);
+    }
+
+    public static ItemChangedEvent commented(Collection<Integer> itemIds) {
+        return new ItemChangedEvent(List.of(), List.of(), List.of(), List.of(), Set.copyOf(itemIds), false);
+    }
+
+    public List<Item> getSaved() {
+        return Stream.concat(created.stream(), updated.stream()).collect(Collectors.toList());
+    }
+
+    public Set<Integer> getRemovedIds() {
+        return removed.stream().map(Item::getId).collect(Collectors.toSet());
+    }
+
+    // карточки созданных предметов ещё не могли попасть в кэш
+    public Set<Integer> getChangedCardIds() {
+        if (updated.isEmpty() && removed.isEmpty()) {
+            return commentedItemIds;
+        }
+        return Stream.of(updated.stream().map(Item::getId), removed.stream().map(Item::getId), commentedItemIds.stream())
+                .flatMap(ids -> ids)
+                .collect(Collectors.toSet());
+    }
+
+    public boolean isCatalogChanged() {
+        return !created.isEmpty() || !updated.isEmpty() || !removed.isEmpty();
+    }
+
+    // предметы под запросами показываются в ленте запросов
+    public boolean isRequestItemsChanged() {
+        return Stream.of(created, updated, removed)
+                .flatMap(Collection::stream)
+                .anyMatch(item -> Objects.nonNull(item.getRequest()));
+    }
+
+    public Set<Integer> getAnsweredRequestIds() {
+        return created.stream()
+                .map(Item::getRequest)
+                .filter(Objects::nonNull)
+                .map(ItemRequest::getId)
+                .collect(Collectors.toSet());
+    }
+
+}
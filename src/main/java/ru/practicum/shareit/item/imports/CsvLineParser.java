@@ -0,0 +1,114 @@
+package ru.practicum.shareit.item.imports;
+
+import ru.practicum.shareit.exception.APIBadRequestException;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Строка CSV по RFC 4180: поля через запятую, в кавычках допускаются запятые и удвоенные кавычки.
+ * Перевод строки внутри поля не поддерживается — одна запись всегда занимает одну строку файла.
+ * Порядок колонок задаётся заголовком: name, description, available и необязательная requestId.
+ */
+class CsvLineParser implements ItemLineParser {
+
+    private final int nameColumn;
+    private final int descriptionColumn;
+    private final int availableColumn;
+    private final int requestIdColumn;
+
+    CsvLineParser(String header) {
+        List<String> columns = split(header);
+        for (int i = 0; i < columns.size(); i++) {
+            columns.set(i, columns.get(i).trim().toLowerCase(Locale.ROOT));
+        }
+        nameColumn = requiredColumn(columns, "name");
+        descriptionColumn = requiredColumn(columns, "description");
+        availableColumn = requiredColumn(columns, "available");
+        requestIdColumn = columns.indexOf("requestid");
+    }
+
+    private static int requiredColumn(List<String> columns, String name) {
+        int index = columns.indexOf(name);
+        if (index < 0) {
+            throw new APIBadRequestException("В заголовке CSV нет колонки %s", name);
+        }
+        return index;
+    }
+
+    @Override
+    public CreateItemDto parse(String line) {
+        List<String> fields = split(line);
+        CreateItemDto dto = new CreateItemDto();
+        dto.setName(field(fields, nameColumn));
+        dto.setDescription(field(fields, descriptionColumn));
+        dto.setAvailable(parseAvailable(field(fields, availableColumn)));
+        if (requestIdColumn >= 0) {
+            dto.setRequestId(parseRequestId(field(fields, requestIdColumn)));
+        }
+        return dto;
+    }
+
+    private static String field(List<String> fields, int column) {
+        return column < fields.size() ? fields.get(column) : null;
+    }
+
+    private static Boolean parseAvailable(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true":
+                return true;
+            case "false":
+                return false;
+            default:
+                throw new APIBadRequestException("Некорректное значение available: %s", value);
+        }
+    }
+
+    private static Integer parseRequestId(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new APIBadRequestException("Некорректное значение requestId: %s", value);
+        }
+    }
+
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new APIBadRequestException("Незакрытые кавычки в строке CSV");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+}
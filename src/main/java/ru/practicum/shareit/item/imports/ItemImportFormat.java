@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.imports;
+
+import org.springframework.http.MediaType;
+import ru.practicum.shareit.exception.APIBadRequestException;
+
+public enum ItemImportFormat {
+
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final MediaType mediaType;
+
+    ItemImportFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    public static ItemImportFormat of(MediaType contentType) {
+        for (ItemImportFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(contentType)) {
+                return format;
+            }
+        }
+        throw new APIBadRequestException("Неподдерживаемый формат импорта %s", contentType);
+    }
+
+}
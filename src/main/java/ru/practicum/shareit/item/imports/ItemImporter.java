@@ -0,0 +1,192 @@
+package ru.practicum.shareit.item.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.APIBadRequestException;
+import ru.practicum.shareit.exception.APIException;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+import ru.practicum.shareit.item.dto.RejectedLineDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemBatchRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Потоковый импорт предметов. Файл читается построчно, в памяти держится не больше одной пачки
+ * строк и ограниченный список отклонённых строк. Каждая пачка проверяется двумя запросами
+ * (занятые названия владельца и существующие запросы) и вставляется JDBC-батчем в своей транзакции,
+ * так что ошибка в конце большого файла не откатывает уже импортированное.
+ */
+@Slf4j
+@Component
+public class ItemImporter {
+
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemBatchRepository itemBatchRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxRejectedLines;
+
+    public ItemImporter(
+            ItemRepository itemRepository,
+            ItemRequestRepository itemRequestRepository,
+            ItemBatchRepository itemBatchRepository,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            Validator validator,
+            ObjectMapper objectMapper,
+            @Value("${shareit.item.import.batch-size:500}") int batchSize,
+            @Value("${shareit.item.import.max-rejected-lines:1000}") int maxRejectedLines
+    ) {
+        this.itemRepository = itemRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemBatchRepository = itemBatchRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxRejectedLines = maxRejectedLines;
+    }
+
+    public ItemImportReportDto importItems(User owner, ItemImportFormat format, InputStream input) {
+        Report report = new Report();
+        List<ImportLine> batch = new ArrayList<>(batchSize);
+        ItemLineParser parser = format == ItemImportFormat.NDJSON ? new NdjsonLineParser(objectMapper) : null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (parser == null) {
+                    parser = new CsvLineParser(line);
+                    continue;
+                }
+                report.lines++;
+                try {
+                    batch.add(new ImportLine(lineNumber, validate(parser.parse(line))));
+                } catch (APIException e) {
+                    report.reject(lineNumber, e.getMessage());
+                }
+                if (batch.size() == batchSize) {
+                    insertBatch(owner, batch, report);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        insertBatch(owner, batch, report);
+        log.info("Imported {} of {} items for user {}", report.imported, report.lines, owner.getId());
+        report.rejectedLines.sort(Comparator.comparing(RejectedLineDto::getLine));
+        return ItemImportReportDto.builder()
+                .lines(report.lines)
+                .imported(report.imported)
+                .rejected(report.rejected)
+                .rejectedLines(report.rejectedLines)
+                .build();
+    }
+
+    private CreateItemDto validate(CreateItemDto dto) {
+        Set<ConstraintViolation<CreateItemDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            String fields = violations.stream()
+                    .map(violation -> violation.getPropertyPath().toString())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            throw new APIBadRequestException("Некорректные поля: %s", fields);
+        }
+        return dto;
+    }
+
+    private void insertBatch(User owner, List<ImportLine> batch, Report report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<String> names = batch.stream()
+                    .map(line -> line.dto.getName())
+                    .collect(Collectors.toSet());
+            Set<String> takenNames = new HashSet<>(itemRepository.findNamesByOwnerIdAndNameIn(owner.getId(), names));
+            Set<Integer> requestIds = batch.stream()
+                    .map(line -> line.dto.getRequestId())
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            Set<Integer> existingRequestIds = requestIds.isEmpty()
+                    ? Collections.emptySet()
+                    : new HashSet<>(itemRequestRepository.findIdsByIdIn(requestIds));
+            List<Item> items = new ArrayList<>(batch.size());
+            for (ImportLine line : batch) {
+                CreateItemDto dto = line.dto;
+                ItemRequest itemRequest = null;
+                if (Objects.nonNull(dto.getRequestId())) {
+                    if (!existingRequestIds.contains(dto.getRequestId())) {
+                        report.reject(line.number, String.format("Запрос id %d не найден", dto.getRequestId()));
+                        continue;
+                    }
+                    itemRequest = itemRequestRepository.getReferenceById(dto.getRequestId());
+                }
+                if (!takenNames.add(dto.getName())) {
+                    report.reject(line.number, String.format("Предмет с названием %s уже существует", dto.getName()));
+                    continue;
+                }
+                items.add(ItemMapper.toModel(dto, owner, itemRequest));
+            }
+            if (items.isEmpty()) {
+                return;
+            }
+            itemBatchRepository.insertAll(items);
+            eventPublisher.publishEvent(ItemChangedEvent.imported(items));
+            report.imported += items.size();
+        });
+        batch.clear();
+    }
+
+    @AllArgsConstructor
+    private static class ImportLine {
+        private final int number;
+        private final CreateItemDto dto;
+    }
+
+    private class Report {
+        private int lines;
+        private int imported;
+        private int rejected;
+        private final List<RejectedLineDto> rejectedLines = new ArrayList<>();
+
+        private void reject(int line, String error) {
+            rejected++;
+            if (rejectedLines.size() < maxRejectedLines) {
+                rejectedLines.add(new RejectedLineDto(line, error));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.imports;
+
+import ru.practicum.shareit.item.dto.CreateItemDto;
+
+interface ItemLineParser {
+
+    CreateItemDto parse(String line);
+
+}
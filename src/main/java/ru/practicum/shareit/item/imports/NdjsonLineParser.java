@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.exception.APIBadRequestException;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+
+@RequiredArgsConstructor
+class NdjsonLineParser implements ItemLineParser {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public CreateItemDto parse(String line) {
+        CreateItemDto dto;
+        try {
+            dto = objectMapper.readValue(line, CreateItemDto.class);
+        } catch (JsonProcessingException e) {
+            throw new APIBadRequestException("Некорректный JSON: %s", e.getOriginalMessage());
+        }
+        if (dto == null) {
+            throw new APIBadRequestException("Пустая запись");
+        }
+        return dto;
+    }
+
+}
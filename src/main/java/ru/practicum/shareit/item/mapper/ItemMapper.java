@@ -1,19 +1,17 @@
 package ru.practicum.shareit.item.mapper;
 
-import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
 import ru.practicum.shareit.item.dto.ItemBookingCommentDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
-import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 public class ItemMapper {
 
@@ -42,7 +40,7 @@ public class ItemMapper {
         return item;
     }
 
-    public static ItemBookingDto toItemBookingDto(Item item, Booking nextBooking, Booking lastBooking) {
+    public static ItemBookingDto toItemBookingDto(Item item, ShortBookingDto nextBooking, ShortBookingDto lastBooking) {
         ItemBookingDto.ItemBookingDtoBuilder builder = ItemBookingDto.builder()
                 .id(item.getId())
                 .name(item.getName())
@@ -54,36 +52,30 @@ public class ItemMapper {
         if (Objects.nonNull(item.getOwner())) {
             builder.ownerId(item.getOwner().getId());
         }
-        if (Objects.nonNull(nextBooking)) {
-            builder.nextBooking(BookingMapper.toShortBookingDto(nextBooking));
-        }
-        if (Objects.nonNull(lastBooking)) {
-            builder.lastBooking(BookingMapper.toShortBookingDto(lastBooking));
-        }
+        builder.nextBooking(nextBooking).lastBooking(lastBooking);
         return builder.build();
     }
 
-    public static ItemBookingCommentDto toItemBookingCommentDto(Item item, Booking nextBooking, Booking lastBooking, List<Comment> comments) {
+    public static ItemBookingCommentDto toItemBookingCommentDto(
+            Item item,
+            ShortBookingDto nextBooking,
+            ShortBookingDto lastBooking,
+            List<CommentDto> comments
+    ) {
         ItemBookingCommentDto.ItemBookingCommentDtoBuilder builder = ItemBookingCommentDto.builder()
                 .id(item.getId())
                 .name(item.getName())
                 .description(item.getDescription())
-                .available(item.isAvailable());
+                .available(item.isAvailable())
+                .commentCount(item.getCommentCount());
         if (Objects.nonNull(item.getRequest())) {
             builder.requestId(item.getRequest().getId());
         }
         if (Objects.nonNull(item.getOwner())) {
             builder.ownerId(item.getOwner().getId());
         }
-        if (Objects.nonNull(nextBooking)) {
-            builder.nextBooking(BookingMapper.toShortBookingDto(nextBooking));
-        }
-        if (Objects.nonNull(lastBooking)) {
-            builder.lastBooking(BookingMapper.toShortBookingDto(lastBooking));
-        }
-        if (Objects.nonNull(comments)) {
-            builder.comments(comments.stream().map(CommentMapper::toDto).collect(Collectors.toList()));
-        }
+        builder.nextBooking(nextBooking).lastBooking(lastBooking);
+        builder.comments(comments);
         return builder.build();
     }
 
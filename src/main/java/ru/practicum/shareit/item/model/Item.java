@@ -14,7 +14,8 @@ import javax.persistence.*;
 public class Item {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     @Column(name = "item_id", nullable = false)
     private Integer id;
 
@@ -35,4 +36,12 @@ public class Item {
     @JoinColumn(name = "request_id")
     private ItemRequest request;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    // меняется только запросами CommentRepository/ItemRepository, чтобы не затирать параллельные инкременты
+    @Column(name = "comment_count", nullable = false, insertable = false, updatable = false)
+    private long commentCount;
+
 }
@@ -1,15 +1,30 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 @SuppressWarnings("unused")
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
 
-    List<Comment> findAllByItem_Id(int itemId);
+    @Query("select new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, c.item.id, a.id, a.name, c.created)" +
+            " from Comment c join c.author a where c.item.id = :itemId order by c.created desc, c.id desc")
+    List<CommentDto> findPageByItemId(int itemId, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, c.item.id, a.id, a.name, c.created)" +
+            " from Comment c join c.author a where c.item.id = :itemId" +
+            " and (c.created < :created or (c.created = :created and c.id < :id))" +
+            " order by c.created desc, c.id desc")
+    List<CommentDto> findPageByItemIdAfter(int itemId, LocalDateTime created, int id, Pageable pageable);
+
+    @Query("select distinct c.item.id from Comment c where c.author.id = :authorId")
+    List<Integer> findItemIdsByAuthorId(int authorId);
 
 }
@@ -2,19 +2,82 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemDocument;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 @SuppressWarnings("unused")
 public interface ItemRepository extends JpaRepository<Item, Integer> {
 
+    // производный запрос соединяет USERS и фильтрует по USER_ID, мимо индекса ITEMS по OWNER_ID
+    @Query("select i from Item i where i.owner.id = :ownerId")
     List<Item> findAllByOwnerId(int ownerId, Pageable pageable);
 
-    @Query("from Item where available is true and UPPER(CONCAT(name, description)) like UPPER(CONCAT('%',:text,'%'))")
-    List<Item> findAllByNameOrDescription(String text, Pageable pageable);
+    @Query("select i.id from Item i where i.available is true" +
+            " and UPPER(CONCAT(i.name, i.description)) like UPPER(CONCAT('%',:text,'%')) order by i.id")
+    List<Integer> findIdsByNameOrDescription(String text, Pageable pageable);
+
+    @Query("select i.id from Item i where i.available is true" +
+            " and UPPER(CONCAT(i.name, i.description)) like UPPER(CONCAT('%',:text,'%'))" +
+            " order by case when UPPER(i.name) like UPPER(CONCAT('%',:text,'%')) then 0 else 1 end, length(i.name), i.id")
+    List<Integer> findIdsByNameOrDescriptionRanked(String text, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.item.search.ItemDocument(i.id, i.name, i.description)" +
+            " from Item i where i.available = true")
+    Stream<ItemDocument> streamAvailableDocuments();
+
+    long countByAvailableTrue();
+
+    @Query("select i.id from Item i where i.owner.id = :ownerId")
+    List<Integer> findIdsByOwnerId(int ownerId);
+
+    boolean existsByRequestId(int requestId);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, i.owner.id, i.request.id)" +
+            " from Item i where i.request.id in :requestIds order by i.id")
+    List<ItemDto> findDtosByRequestIdIn(Collection<Integer> requestIds);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, i.owner.id, i.request.id)" +
+            " from Item i where i.id in :ids")
+    List<ItemDto> findDtosByIdIn(Collection<Integer> ids);
+
+    @Query("select i.name from Item i where i.owner.id = :ownerId and i.name in :names")
+    List<String> findNamesByOwnerIdAndNameIn(int ownerId, Collection<String> names);
+
+    @Modifying
+    @Query("update Item i set i.commentCount = i.commentCount + 1 where i.id = :itemId")
+    int incrementCommentCount(int itemId);
+
+    @Modifying
+    @Query("update Item i set i.commentCount = (select count(c) from Comment c where c.item.id = i.id)" +
+            " where i.id in :itemIds")
+    int recountComments(Collection<Integer> itemIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("from Item i where i.id = :itemId")
+    Optional<Item> findByIdForUpdate(int itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("from Item i where i.id in :itemIds order by i.id")
+    List<Item> findAllByIdInForUpdate(Collection<Integer> itemIds);
+
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("from Item i where i.id = :itemId")
+    Optional<Item> findByIdWithVersionIncrement(int itemId);
+
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("from Item i where i.id in :itemIds order by i.id")
+    List<Item> findAllByIdInWithVersionIncrement(Collection<Integer> itemIds);
 
 }
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Подсказки по началу названия доступных предметов. Названия хранятся в префиксном дереве в памяти,
+ * база читается только при загрузке.
+ */
+@Slf4j
+@Component
+public class ItemNameSuggester {
+
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NameTrie trie = new NameTrie();
+    private final Map<Integer, String> namesByItem = new HashMap<>();
+    private volatile boolean loaded;
+
+    public ItemNameSuggester(ItemRepository itemRepository, PlatformTransactionManager transactionManager) {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    try (Stream<ItemDocument> documents = itemRepository.streamAvailableDocuments()) {
+                        documents.forEach(document -> put(document.getId(), document.getName()));
+                    }
+                });
+                loaded = true;
+                log.info("Loaded {} item names for suggestions", namesByItem.size());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String key = SearchTokenizer.normalize(prefix);
+        if (key.isEmpty()) {
+            return Collections.emptyList();
+        }
+        load();
+        lock.readLock().lock();
+        try {
+            return trie.complete(key, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void index(Item item) {
+        int itemId = item.getId();
+        String name = item.isAvailable() ? item.getName() : null;
+        lock.writeLock().lock();
+        try {
+            put(itemId, name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Collection<Integer> itemIds) {
+        lock.writeLock().lock();
+        try {
+            itemIds.forEach(itemId -> put(itemId, null));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onItemChanged(ItemChangedEvent event) {
+        event.getSaved().forEach(this::index);
+        if (!event.getRemoved().isEmpty()) {
+            remove(event.getRemovedIds());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserDeleted(UserDeletedEvent event) {
+        if (!event.getItemIds().isEmpty()) {
+            remove(event.getItemIds());
+        }
+    }
+
+    private void put(int itemId, String name) {
+        String previous = namesByItem.remove(itemId);
+        if (previous != null) {
+            trie.remove(SearchTokenizer.normalize(previous), previous);
+        }
+        String key = SearchTokenizer.normalize(name);
+        if (key.isEmpty()) {
+            return;
+        }
+        String spelling = name.strip();
+        namesByItem.put(itemId, spelling);
+        trie.add(key, spelling);
+    }
+
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.util.TransactionUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Кэш страниц поиска с вытеснением W-TinyLFU: хранит только id найденных предметов, сами предметы
+ * читаются заново. Версия каталога входит в ключ: любое изменение предметов увеличивает её после коммита,
+ * и старые записи просто перестают находиться, пока их не вытеснят.
+ */
+@Component
+public class ItemSearchCache {
+
+    static final String NAME = "items.search";
+
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final Cache<Key, List<Integer>> cache;
+
+    public ItemSearchCache(@Value("${shareit.search.cache.size:10000}") long size, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(size)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    // версия читается до поиска, поэтому результат, посчитанный до коммита, не попадёт под новую версию
+    public List<Integer> get(String text, SearchOrder order, int from, int size, Supplier<List<Integer>> search) {
+        if (TransactionUtils.isReadWrite()) {
+            return search.get();
+        }
+        Key key = new Key(catalogVersion.get(), SearchTokenizer.normalize(text), order, from, size);
+        return cache.get(key, k -> List.copyOf(search.get()));
+    }
+
+    public void invalidate() {
+        catalogVersion.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.isCatalogChanged()) {
+            invalidate();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserDeleted(UserDeletedEvent event) {
+        if (!event.getItemIds().isEmpty()) {
+            invalidate();
+        }
+    }
+
+    public long getCatalogVersion() {
+        return catalogVersion.get();
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final long version;
+        private final String text;
+        private final SearchOrder order;
+        private final int from;
+        private final int size;
+    }
+
+}
@@ -0,0 +1,184 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Инвертированный индекс доступных предметов в памяти: токен названия или описания -> отсортированные id.
+ * Каждое слово запроса ищется как префикс токена, результаты по словам пересекаются.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "MEMORY", matchIfMissing = true)
+public class ItemSearchIndex implements SearchEngine {
+
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private final Map<Integer, IndexedItem> items = new HashMap<>();
+    private volatile boolean loaded;
+
+    public ItemSearchIndex(ItemRepository itemRepository, PlatformTransactionManager transactionManager) {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                rebuild();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void reindex() {
+        rebuild();
+    }
+
+    // изменения, закоммиченные во время загрузки, ждут блокировку и применяются поверх снимка
+    private void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            items.clear();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<ItemDocument> documents = itemRepository.streamAvailableDocuments()) {
+                    documents.forEach(document -> put(document.getId(), IndexedItem.of(document)));
+                }
+            });
+            loaded = true;
+            log.info("Indexed {} items, {} tokens", items.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Integer> search(String text, SearchOrder order, int offset, int limit) {
+        Set<String> terms = SearchTokenizer.tokenize(text);
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+        load();
+        lock.readLock().lock();
+        try {
+            int[] ids = match(terms);
+            if (order == SearchOrder.ID) {
+                return Arrays.stream(ids, Math.min(offset, ids.length), Math.min(offset + limit, ids.length))
+                        .boxed()
+                        .collect(Collectors.toList());
+            }
+            TopKCollector collector = new TopKCollector(offset + limit);
+            for (int id : ids) {
+                IndexedItem item = items.get(id);
+                collector.collect(id, Relevance.score(terms, item.name, item.description));
+            }
+            return collector.page(offset);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] match(Set<String> terms) {
+        List<int[]> matches = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Collection<Postings> prefixed = postings.subMap(term, true, term + Character.MAX_VALUE, true).values();
+            if (prefixed.isEmpty()) {
+                return new int[0];
+            }
+            matches.add(prefixed.size() == 1 ? prefixed.iterator().next().toArray() : Postings.union(prefixed));
+        }
+        matches.sort(Comparator.comparingInt(ids -> ids.length));
+        int[] result = matches.get(0);
+        for (int i = 1; i < matches.size() && result.length > 0; i++) {
+            result = Postings.intersect(result, matches.get(i));
+        }
+        return result;
+    }
+
+    @Override
+    public void index(Item item) {
+        int itemId = item.getId();
+        IndexedItem indexed = item.isAvailable()
+                ? IndexedItem.of(new ItemDocument(itemId, item.getName(), item.getDescription()))
+                : null;
+        lock.writeLock().lock();
+        try {
+            put(itemId, indexed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Collection<Integer> itemIds) {
+        lock.writeLock().lock();
+        try {
+            itemIds.forEach(itemId -> put(itemId, null));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(int itemId, IndexedItem item) {
+        IndexedItem previous = items.remove(itemId);
+        if (previous != null) {
+            for (String token : previous.tokens()) {
+                Postings ids = postings.get(token);
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+        if (item == null) {
+            return;
+        }
+        items.put(itemId, item);
+        item.tokens().forEach(token -> postings.computeIfAbsent(token, t -> new Postings()).add(itemId));
+    }
+
+    private static class IndexedItem {
+        private final String[] name;
+        private final String[] description;
+
+        private IndexedItem(String[] name, String[] description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        private static IndexedItem of(ItemDocument document) {
+            return new IndexedItem(
+                    SearchTokenizer.tokenize(document.getName()).toArray(new String[0]),
+                    SearchTokenizer.tokenize(document.getDescription()).toArray(new String[0])
+            );
+        }
+
+        private Set<String> tokens() {
+            Set<String> tokens = new HashSet<>(Arrays.asList(name));
+            tokens.addAll(Arrays.asList(description));
+            return tokens;
+        }
+    }
+
+}
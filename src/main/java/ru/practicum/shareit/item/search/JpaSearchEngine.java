@@ -0,0 +1,44 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.util.OffsetPageRequest;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Поиск подстрокой через LIKE по таблице предметов, без отдельного индекса.
+ * Оставлен для сравнения с индексными реализациями.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "JPA")
+public class JpaSearchEngine implements SearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Integer> search(String text, SearchOrder order, int offset, int limit) {
+        OffsetPageRequest page = OffsetPageRequest.of(offset, limit);
+        return order == SearchOrder.RELEVANCE
+                ? itemRepository.findIdsByNameOrDescriptionRanked(text, page)
+                : itemRepository.findIdsByNameOrDescription(text, page);
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    @Override
+    public void remove(Collection<Integer> itemIds) {
+    }
+
+    @Override
+    public void reindex() {
+    }
+
+}
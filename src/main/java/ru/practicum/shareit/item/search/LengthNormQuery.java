@@ -0,0 +1,112 @@
+package ru.practicum.shareit.item.search;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.FilterScorer;
+import org.apache.lucene.search.FilterWeight;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Weight;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Умножает оценку запроса на {@link Relevance#lengthNorm} поля. Число токенов поля хранится
+ * в doc values lengthField, документ без него считается полем из одного токена.
+ */
+final class LengthNormQuery extends Query {
+
+    private final Query query;
+    private final String lengthField;
+
+    LengthNormQuery(Query query, String lengthField) {
+        this.query = query;
+        this.lengthField = lengthField;
+    }
+
+    @Override
+    public Query rewrite(IndexReader reader) throws IOException {
+        Query rewritten = query.rewrite(reader);
+        return rewritten == query ? this : new LengthNormQuery(rewritten, lengthField);
+    }
+
+    @Override
+    public Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) throws IOException {
+        return new FilterWeight(this, query.createWeight(searcher, scoreMode, boost)) {
+
+            @Override
+            public Scorer scorer(LeafReaderContext context) throws IOException {
+                Scorer scorer = in.scorer(context);
+                if (scorer == null) {
+                    return null;
+                }
+                NumericDocValues lengths = DocValues.getNumeric(context.reader(), lengthField);
+                return new FilterScorer(scorer, this) {
+
+                    @Override
+                    public float score() throws IOException {
+                        return in.score() * norm(lengths, docID());
+                    }
+
+                    // множитель не больше единицы
+                    @Override
+                    public float getMaxScore(int upTo) throws IOException {
+                        return in.getMaxScore(upTo);
+                    }
+                };
+            }
+
+            @Override
+            public Explanation explain(LeafReaderContext context, int doc) throws IOException {
+                Explanation explanation = in.explain(context, doc);
+                if (!explanation.isMatch()) {
+                    return explanation;
+                }
+                float norm = norm(DocValues.getNumeric(context.reader(), lengthField), doc);
+                return Explanation.match(explanation.getValue().floatValue() * norm, "product of:",
+                        explanation, Explanation.match(norm, "length norm of " + lengthField));
+            }
+
+            @Override
+            public boolean isCacheable(LeafReaderContext context) {
+                return in.isCacheable(context) && DocValues.isCacheable(context, lengthField);
+            }
+        };
+    }
+
+    private static float norm(NumericDocValues lengths, int doc) throws IOException {
+        int length = lengths.advanceExact(doc) ? (int) lengths.longValue() : 1;
+        return (float) Relevance.lengthNorm(length);
+    }
+
+    @Override
+    public void visit(QueryVisitor visitor) {
+        query.visit(visitor.getSubVisitor(BooleanClause.Occur.MUST, this));
+    }
+
+    @Override
+    public String toString(String field) {
+        return "lengthNorm(" + query.toString(field) + ", " + lengthField + ")";
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return sameClassAs(other)
+                && query.equals(((LengthNormQuery) other).query)
+                && lengthField.equals(((LengthNormQuery) other).lengthField);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(classHash(), query, lengthField);
+    }
+
+}
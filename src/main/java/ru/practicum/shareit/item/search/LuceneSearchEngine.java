@@ -0,0 +1,277 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.CharArraySet;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Индекс доступных предметов в Lucene на локальном диске. Записи видны поиску сразу после коммита
+ * транзакции за счёт near-real-time переоткрытия читателя, а на диск фиксируются по расписанию и при остановке.
+ * Индекс, пропустивший изменения до аварийной остановки, при запуске не совпадёт с базой по числу
+ * документов и будет построен заново.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "LUCENE")
+public class LuceneSearchEngine implements SearchEngine {
+
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final String NAME_LENGTH = "name_length";
+    private static final String DESCRIPTION_LENGTH = "description_length";
+    private static final SortField ID_FIELD = new SortField(ID, SortField.Type.INT);
+    private static final Sort BY_ID = new Sort(ID_FIELD);
+    private static final Sort BY_RELEVANCE = new Sort(SortField.FIELD_SCORE, ID_FIELD);
+
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private volatile boolean built;
+
+    public LuceneSearchEngine(
+            ItemRepository itemRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${shareit.search.lucene.path:search-index}") Path path
+    ) throws IOException {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.directory = new MMapDirectory(path);
+        this.built = DirectoryReader.indexExists(directory);
+        // токены уже нормализованы SearchTokenizer, анализатор только разбивает их по пробелам
+        IndexWriterConfig config = new IndexWriterConfig(new StandardAnalyzer(CharArraySet.EMPTY_SET))
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        this.writer = new IndexWriter(directory, config);
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!built) {
+            reindex();
+            return;
+        }
+        if (!hasLengths()) {
+            log.warn("Search index has no field lengths, rebuilding");
+            reindex();
+            return;
+        }
+        long indexed = documentCount();
+        long available = itemRepository.countByAvailableTrue();
+        if (indexed != available) {
+            log.warn("Search index has {} documents, database has {} available items, rebuilding", indexed, available);
+            reindex();
+        }
+    }
+
+    @Override
+    public synchronized void reindex() {
+        try {
+            writer.deleteAll();
+            long[] count = new long[1];
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<ItemDocument> documents = itemRepository.streamAvailableDocuments()) {
+                    documents.forEach(document -> {
+                        add(document);
+                        count[0]++;
+                    });
+                }
+            });
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            built = true;
+            log.info("Indexed {} items", count[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public List<Integer> search(String text, SearchOrder order, int offset, int limit) {
+        Set<String> terms = SearchTokenizer.tokenize(text);
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+        boolean ranked = order == SearchOrder.RELEVANCE;
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        terms.forEach(term -> query.add(termQuery(term),
+                ranked ? BooleanClause.Occur.MUST : BooleanClause.Occur.FILTER));
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                // TopFieldCollector сам держит кучу из offset + limit лучших документов
+                ScoreDoc[] hits = searcher.search(query.build(), offset + limit, ranked ? BY_RELEVANCE : BY_ID, ranked)
+                        .scoreDocs;
+                List<Integer> ids = new ArrayList<>(Math.max(hits.length - offset, 0));
+                for (int i = offset; i < hits.length; i++) {
+                    ids.add(Integer.valueOf(searcher.doc(hits[i].doc).get(ID)));
+                }
+                return ids;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void index(Item item) {
+        ItemDocument document = new ItemDocument(item.getId(), item.getName(), item.getDescription());
+        boolean available = item.isAvailable();
+        apply(() -> {
+            if (available) {
+                writer.updateDocument(new Term(ID, String.valueOf(document.getId())), toDocument(document));
+            } else {
+                writer.deleteDocuments(new Term(ID, String.valueOf(document.getId())));
+            }
+        });
+    }
+
+    @Override
+    public void remove(Collection<Integer> itemIds) {
+        apply(() -> writer.deleteDocuments(itemIds.stream()
+                .map(itemId -> new Term(ID, String.valueOf(itemId)))
+                .toArray(Term[]::new)));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.search.lucene.commit-interval:PT5S}")
+    public void commit() {
+        if (!writer.isOpen() || !writer.hasUncommittedChanges()) {
+            return;
+        }
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            log.error("Failed to commit search index", e);
+        }
+    }
+
+    // данные уже закоммичены в базе, поэтому ошибка индекса только логируется и исправляется переиндексацией;
+    // если читатель уже переоткрывается в другом потоке, изменение подхватит следующее переоткрытие
+    private void apply(IndexUpdate update) {
+        try {
+            update.run();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.error("Failed to update search index", e);
+        }
+    }
+
+    // индекс, записанный до появления длин полей, ранжировал бы все поля как однословные
+    private boolean hasLengths() {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                IndexReader reader = searcher.getIndexReader();
+                return reader.numDocs() == 0 || FieldInfos.getMergedFieldInfos(reader).fieldInfo(NAME_LENGTH) != null;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long documentCount() {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                return searcher.getIndexReader().numDocs();
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // каждое слово должно совпасть с токеном названия или описания; как в Relevance, слово приносит вес
+    // лучшего совпадения с поправкой на длину поля, а оценки клауз постоянные, чтобы IDF и частота
+    // не ломали порядок групп
+    private static Query termQuery(String term) {
+        return new DisjunctionMaxQuery(List.of(
+                constant(new TermQuery(new Term(NAME, term)), NAME_LENGTH,
+                        Relevance.NAME_WEIGHT * Relevance.EXACT_WEIGHT),
+                constant(new PrefixQuery(new Term(NAME, term)), NAME_LENGTH,
+                        Relevance.NAME_WEIGHT * Relevance.PREFIX_WEIGHT),
+                constant(new TermQuery(new Term(DESCRIPTION, term)), DESCRIPTION_LENGTH,
+                        Relevance.DESCRIPTION_WEIGHT * Relevance.EXACT_WEIGHT),
+                constant(new PrefixQuery(new Term(DESCRIPTION, term)), DESCRIPTION_LENGTH,
+                        Relevance.DESCRIPTION_WEIGHT * Relevance.PREFIX_WEIGHT)
+        ), 0);
+    }
+
+    private static Query constant(Query query, String lengthField, double weight) {
+        return new LengthNormQuery(new BoostQuery(new ConstantScoreQuery(query), (float) weight), lengthField);
+    }
+
+    private void add(ItemDocument document) {
+        try {
+            writer.addDocument(toDocument(document));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Document toDocument(ItemDocument itemDocument) {
+        Document document = new Document();
+        String id = String.valueOf(itemDocument.getId());
+        document.add(new StringField(ID, id, Field.Store.YES));
+        document.add(new NumericDocValuesField(ID, itemDocument.getId()));
+        Set<String> name = SearchTokenizer.tokenize(itemDocument.getName());
+        Set<String> description = SearchTokenizer.tokenize(itemDocument.getDescription());
+        document.add(new TextField(NAME, String.join(" ", name), Field.Store.NO));
+        document.add(new NumericDocValuesField(NAME_LENGTH, name.size()));
+        document.add(new TextField(DESCRIPTION, String.join(" ", description), Field.Store.NO));
+        document.add(new NumericDocValuesField(DESCRIPTION_LENGTH, description.size()));
+        return document;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        // закрытие фиксирует изменения, накопленные с последнего коммита по расписанию
+        writer.close();
+        directory.close();
+    }
+
+    private interface IndexUpdate {
+        void run() throws IOException;
+    }
+
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Префиксное дерево нормализованных названий. Дети узла хранятся в отсортированном массиве символов,
+ * поэтому обход в глубину выдаёт названия в алфавитном порядке и останавливается после limit штук.
+ * Один ключ могут давать разные написания, узел считает каждое отдельно и показывает самое раннее
+ * из оставшихся. Не потокобезопасно.
+ */
+class NameTrie {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final String[] NO_NAMES = new String[0];
+    private static final int[] NO_COUNTS = new int[0];
+
+    private final Node root = new Node();
+
+    void add(String key, String name) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+        }
+        node.addName(name);
+    }
+
+    void remove(String key, String name) {
+        remove(root, key, name, 0);
+    }
+
+    private static boolean remove(Node node, String key, String name, int depth) {
+        if (depth == key.length()) {
+            node.removeName(name);
+        } else {
+            int index = Arrays.binarySearch(node.keys, key.charAt(depth));
+            if (index >= 0 && remove(node.children[index], key, name, depth + 1)) {
+                node.removeChild(index);
+            }
+        }
+        return node.names.length == 0 && node.keys.length == 0;
+    }
+
+    List<String> complete(String prefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        List<String> result = new ArrayList<>(limit);
+        if (node != null) {
+            collect(node, limit, result);
+        }
+        return result;
+    }
+
+    private static void collect(Node node, int limit, List<String> result) {
+        if (node.names.length > 0) {
+            result.add(node.names[0]);
+        }
+        for (int i = 0; i < node.children.length && result.size() < limit; i++) {
+            collect(node.children[i], limit, result);
+        }
+    }
+
+    private static class Node {
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        // написания в порядке появления и число предметов с каждым
+        private String[] names = NO_NAMES;
+        private int[] counts = NO_COUNTS;
+
+        private Node child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node childOrCreate(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                return children[index];
+            }
+            index = -index - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            newKeys[index] = key;
+            newChildren[index] = new Node();
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[index];
+        }
+
+        private void addName(String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    counts[i]++;
+                    return;
+                }
+            }
+            names = Arrays.copyOf(names, names.length + 1);
+            counts = Arrays.copyOf(counts, counts.length + 1);
+            names[names.length - 1] = name;
+            counts[counts.length - 1] = 1;
+        }
+
+        private void removeName(String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    if (--counts[i] == 0) {
+                        removeNameAt(i);
+                    }
+                    return;
+                }
+            }
+        }
+
+        private void removeNameAt(int index) {
+            String[] newNames = new String[names.length - 1];
+            int[] newCounts = new int[counts.length - 1];
+            System.arraycopy(names, 0, newNames, 0, index);
+            System.arraycopy(counts, 0, newCounts, 0, index);
+            System.arraycopy(names, index + 1, newNames, index, newNames.length - index);
+            System.arraycopy(counts, index + 1, newCounts, index, newCounts.length - index);
+            names = newNames;
+            counts = newCounts;
+        }
+
+        private void removeChild(int index) {
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, newKeys.length - index);
+            System.arraycopy(children, index + 1, newChildren, index, newChildren.length - index);
+            keys = newKeys;
+            children = newChildren;
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+/**
+ * Отсортированный по возрастанию список id предметов для одного токена.
+ */
+class Postings {
+
+    private int[] ids = new int[4];
+    private int size;
+
+    void add(int id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            return;
+        }
+        index = -index - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        ids[index] = id;
+        size++;
+    }
+
+    void remove(int id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index < 0) {
+            return;
+        }
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        size--;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    static int[] union(Iterable<Postings> postings) {
+        int total = 0;
+        for (Postings p : postings) {
+            total += p.size;
+        }
+        int[] result = new int[total];
+        int length = 0;
+        for (Postings p : postings) {
+            System.arraycopy(p.ids, 0, result, length, p.size);
+            length += p.size;
+        }
+        Arrays.sort(result);
+        return dedupe(result);
+    }
+
+    static int[] intersect(int[] smaller, int[] larger) {
+        int[] result = new int[smaller.length];
+        int length = 0;
+        int from = 0;
+        for (int id : smaller) {
+            int index = Arrays.binarySearch(larger, from, larger.length, id);
+            if (index >= 0) {
+                result[length++] = id;
+                from = index + 1;
+            } else {
+                from = -index - 1;
+            }
+            if (from == larger.length) {
+                break;
+            }
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    private static int[] dedupe(int[] sorted) {
+        if (sorted.length == 0) {
+            return sorted;
+        }
+        int length = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[length - 1]) {
+                sorted[length++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, length);
+    }
+
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Set;
+
+/**
+ * Оценка предмета для запроса: сумма по словам запроса лучшего совпадения в названии или описании.
+ * Веса подобраны так, что совпадение в названии всегда важнее совпадения в описании,
+ * точное совпадение токена важнее префикса, а длина поля влияет только внутри этих групп.
+ */
+final class Relevance {
+
+    static final double NAME_WEIGHT = 4;
+    static final double DESCRIPTION_WEIGHT = 1;
+    static final double EXACT_WEIGHT = 2;
+    static final double PREFIX_WEIGHT = 1;
+
+    private Relevance() {
+    }
+
+    static double score(Set<String> terms, String[] name, String[] description) {
+        double score = 0;
+        for (String term : terms) {
+            score += Math.max(field(term, name, NAME_WEIGHT), field(term, description, DESCRIPTION_WEIGHT));
+        }
+        return score;
+    }
+
+    private static double field(String term, String[] tokens, double weight) {
+        double match = 0;
+        for (String token : tokens) {
+            if (token.equals(term)) {
+                match = EXACT_WEIGHT;
+                break;
+            }
+            if (token.startsWith(term)) {
+                match = PREFIX_WEIGHT;
+            }
+        }
+        return match == 0 ? 0 : weight * match * lengthNorm(tokens.length);
+    }
+
+    // от 1 для поля из одного токена до 0.5 для очень длинного
+    static double lengthNorm(int length) {
+        return 0.5 + 0.5 / Math.sqrt(length);
+    }
+
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Поиск доступных предметов по названию и описанию.
+ * Реализация выбирается свойством shareit.search.engine.
+ */
+public interface SearchEngine {
+
+    /**
+     * Возвращает id подходящих предметов по возрастанию id или по убыванию релевантности, пропуская первые offset.
+     */
+    List<Integer> search(String text, SearchOrder order, int offset, int limit);
+
+    /**
+     * Добавляет или обновляет предмет. Вызывается после коммита изменения.
+     */
+    void index(Item item);
+
+    /**
+     * Удаляет предметы. Вызывается после коммита удаления.
+     */
+    void remove(Collection<Integer> itemIds);
+
+    /**
+     * Полностью перестраивает индекс по базе.
+     */
+    void reindex();
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    default void onItemChanged(ItemChangedEvent event) {
+        event.getSaved().forEach(this::index);
+        if (!event.getRemoved().isEmpty()) {
+            remove(event.getRemovedIds());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    default void onUserDeleted(UserDeletedEvent event) {
+        if (!event.getItemIds().isEmpty()) {
+            remove(event.getItemIds());
+        }
+    }
+
+}
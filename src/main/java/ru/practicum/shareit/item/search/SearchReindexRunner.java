@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Полная переиндексация при запуске с аргументом --reindex.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SearchReindexRunner implements ApplicationRunner {
+
+    private final SearchEngine searchEngine;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption("reindex")) {
+            log.info("Reindexing items with {}", searchEngine.getClass().getSimpleName());
+            searchEngine.reindex();
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.*;
+
+/**
+ * Отбирает k лучших предметов по оценке ограниченной кучей, не сортируя все совпадения.
+ * При равной оценке выше предмет с меньшим id.
+ */
+class TopKCollector {
+
+    // наверху кучи худший из отобранных
+    private static final Comparator<Hit> WORST_FIRST = Comparator.<Hit>comparingDouble(hit -> hit.score)
+            .thenComparing(hit -> hit.id, Comparator.reverseOrder());
+
+    private final int k;
+    private final PriorityQueue<Hit> heap;
+
+    TopKCollector(int k) {
+        this.k = k;
+        this.heap = new PriorityQueue<>(Math.max(k, 1), WORST_FIRST);
+    }
+
+    void collect(int id, double score) {
+        if (k == 0) {
+            return;
+        }
+        Hit hit = new Hit(id, score);
+        if (heap.size() < k) {
+            heap.add(hit);
+        } else if (WORST_FIRST.compare(hit, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(hit);
+        }
+    }
+
+    /**
+     * Возвращает id отобранных предметов от лучшего к худшему, пропуская первые offset.
+     */
+    List<Integer> page(int offset) {
+        int size = heap.size() - offset;
+        if (size <= 0) {
+            return Collections.emptyList();
+        }
+        Integer[] ids = new Integer[size];
+        for (int i = size - 1; i >= 0; i--) {
+            ids[i] = heap.poll().id;
+        }
+        return Arrays.asList(ids);
+    }
+
+    private static class Hit {
+        private final int id;
+        private final double score;
+
+        private Hit(int id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+
+}
@@ -1,9 +1,13 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.imports.ItemImportFormat;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.SearchOrder;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
@@ -11,6 +15,8 @@ public interface ItemService {
 
     Item createItem(CreateItemDto dto);
 
+    ItemImportReportDto importItems(int userId, ItemImportFormat format, InputStream input);
+
     Item editItem(ItemDto dto);
 
     void deleteItemById(int itemId, int userId);
@@ -21,8 +27,14 @@ public interface ItemService {
 
     Collection<ItemBookingDto> getAllByOwnerId(int ownerId, int from, int size);
 
-    List<Item> search(String text, int from, int size);
+    ItemAvailabilityDto getAvailability(int itemId, LocalDateTime from, LocalDateTime to);
+
+    List<ItemDto> search(String text, SearchOrder order, int from, int size);
+
+    List<String> suggest(String prefix, int size);
 
     Comment addComment(CommentDto dto, int itemId, int userId);
 
+    List<CommentDto> getComments(int itemId, String cursor, int size);
+
 }
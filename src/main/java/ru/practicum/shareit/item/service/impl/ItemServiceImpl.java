@@ -1,41 +1,70 @@
 package ru.practicum.shareit.item.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.availability.BookingInterval;
+import ru.practicum.shareit.booking.completion.CompletedBookingIndex;
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.AdjacentBooking;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.BookingSummaryTracker;
 import ru.practicum.shareit.exception.APIAccessDeniedException;
 import ru.practicum.shareit.exception.APIBadRequestException;
 import ru.practicum.shareit.exception.APINotFoundException;
+import ru.practicum.shareit.item.cache.ItemDetailCache;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.imports.ItemImportFormat;
+import ru.practicum.shareit.item.imports.ItemImporter;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentCursor;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.SearchEngine;
+import ru.practicum.shareit.item.search.SearchOrder;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.matching.RequestDocument;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
 
+    // сколько последних комментариев показывать в карточке предмета, остальные через /items/{itemId}/comments
+    private static final int DETAIL_COMMENTS = 10;
+
     private final ItemRepository itemRepository;
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final BookingSummaryTracker bookingSummaryTracker;
+    private final CompletedBookingIndex completedBookingIndex;
+    private final SearchEngine searchEngine;
+    private final ItemNameSuggester itemNameSuggester;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemDetailCache itemDetailCache;
+    private final ItemImporter itemImporter;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -45,8 +74,14 @@ public class ItemServiceImpl implements ItemService {
         if (Objects.nonNull(dto.getRequestId())) {
             itemRequest = getItemRequestById(dto.getRequestId());
         }
-        Item item = ItemMapper.toModel(dto, owner, itemRequest);
-        return itemRepository.save(item);
+        Item item = itemRepository.save(ItemMapper.toModel(dto, owner, itemRequest));
+        eventPublisher.publishEvent(ItemChangedEvent.created(List.of(item)));
+        return item;
+    }
+
+    @Override
+    public ItemImportReportDto importItems(int userId, ItemImportFormat format, InputStream input) {
+        return itemImporter.importItems(getUserById(userId), format, input);
     }
 
     private User getUserById(int userId) {
@@ -70,7 +105,9 @@ public class ItemServiceImpl implements ItemService {
         if (Objects.nonNull(dto.getAvailable())) {
             item.setAvailable(dto.getAvailable());
         }
-        return itemRepository.save(item);
+        item = itemRepository.save(item);
+        eventPublisher.publishEvent(ItemChangedEvent.updated(item));
+        return item;
     }
 
     @Override
@@ -80,7 +117,17 @@ public class ItemServiceImpl implements ItemService {
         if (!item.getOwner().getId().equals(userId)) {
             throw new APIAccessDeniedException("Нет прав на удаление предмета с id %d", itemId);
         }
+        Set<Integer> affectedUserIds = new HashSet<>(bookingRepository.findBookerIdsByItemId(itemId));
+        affectedUserIds.add(userId);
         itemRepository.deleteById(itemId);
+        itemRepository.flush();
+        RequestDocument reopenedRequest = null;
+        ItemRequest request = item.getRequest();
+        if (Objects.nonNull(request) && !itemRepository.existsByRequestId(request.getId())) {
+            reopenedRequest = new RequestDocument(request.getId(), request.getRequester().getId(), request.getDescription());
+        }
+        eventPublisher.publishEvent(ItemChangedEvent.removed(item, reopenedRequest));
+        bookingSummaryTracker.refresh(affectedUserIds);
     }
 
     @Override
@@ -93,21 +140,18 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional(readOnly = true)
     public ItemBookingCommentDto getItemBookingById(int itemId, int userId) {
-        Item item = getById(itemId);
-        List<Comment> comments = commentRepository.findAllByItem_Id(itemId);
-        if (!item.getOwner().getId().equals(userId)) {
-            return ItemMapper.toItemBookingCommentDto(item, null, null, comments);
+        ItemBookingCommentDto view = itemDetailCache.getView(itemId, () -> ItemMapper.toItemBookingCommentDto(
+                getById(itemId), null, null, commentRepository.findPageByItemId(itemId, PageRequest.of(0, DETAIL_COMMENTS))));
+        if (!Objects.equals(view.getOwnerId(), userId)) {
+            return view;
         }
-        LocalDateTime nowTime = LocalDateTime.now();
-        Booking lastBooking = bookingRepository.findFirstByItem_IdAndStartBefore(itemId, nowTime, Sort.by(Sort.Direction.DESC, "end"))
-                .orElse(null);
-        Booking nextBooking = bookingRepository.findFirstByItem_IdAndStartAfterAndStatusNot(
-                itemId,
-                nowTime,
-                BookingStatus.REJECTED,
-                Sort.by(Sort.Direction.ASC, "start")
-        ).orElse(null);
-        return ItemMapper.toItemBookingCommentDto(item, nextBooking, lastBooking, comments);
+        return itemDetailCache.getOwnerView(itemId, () -> {
+            AdjacentBookings adjacent = findAdjacentBookings(List.of(itemId));
+            return view.toBuilder()
+                    .nextBooking(adjacent.next.get(itemId))
+                    .lastBooking(adjacent.last.get(itemId))
+                    .build();
+        });
     }
 
     @Override
@@ -116,56 +160,134 @@ public class ItemServiceImpl implements ItemService {
 
         Collection<Item> items = itemRepository.findAllByOwnerId(ownerId, PageRequest.of(from / size, size));
 
-        LocalDateTime nowTime = LocalDateTime.now();
-
-        Map<Integer, Booking> lastBookings = bookingRepository.findAllByItemInAndStartBefore(
-                        items,
-                        nowTime,
-                        Sort.by(Sort.Direction.DESC, "end")
-                )
-                .stream()
-                .collect(Collectors.toMap(booking -> booking.getItem().getId(), booking -> booking, (o, o2) -> o));
-
-        Map<Integer, Booking> nextBookings = bookingRepository.findAllByItemInAndStartAfterAndStatusNot(
-                        items,
-                        nowTime,
-                        BookingStatus.REJECTED,
-                        Sort.by(Sort.Direction.ASC, "start")
-                )
-                .stream()
-                .collect(Collectors.toMap(booking -> booking.getItem().getId(), booking -> booking, (o, o2) -> o));
+        AdjacentBookings adjacent = findAdjacentBookings(items.stream().map(Item::getId).collect(Collectors.toList()));
 
         return items
                 .stream()
                 .map(item -> ItemMapper.toItemBookingDto(
                         item,
-                        nextBookings.get(item.getId()),
-                        lastBookings.get(item.getId()))
+                        adjacent.next.get(item.getId()),
+                        adjacent.last.get(item.getId()))
                 )
                 .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Item> search(String text, int from, int size) {
+    public ItemAvailabilityDto getAvailability(int itemId, LocalDateTime from, LocalDateTime to) {
+        if (!to.isAfter(from)) {
+            throw new APIBadRequestException("Дата начала %s после либо равна дате окончания %s", from, to);
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new APINotFoundException("Предмет %d не найден ", itemId);
+        }
+        List<TimeSlotDto> busy = new ArrayList<>();
+        List<TimeSlotDto> free = new ArrayList<>();
+        try (Stream<BookingInterval> intervals = bookingRepository.streamIntervalsByItemIdInPeriod(
+                itemId,
+                List.of(BookingStatus.APPROVED, BookingStatus.WAITING),
+                from,
+                to
+        )) {
+            LocalDateTime freeFrom = from;
+            LocalDateTime busyFrom = null;
+            LocalDateTime busyTo = null;
+            for (Iterator<BookingInterval> iterator = intervals.iterator(); iterator.hasNext(); ) {
+                BookingInterval interval = iterator.next();
+                LocalDateTime start = interval.getStart().isBefore(from) ? from : interval.getStart();
+                LocalDateTime end = interval.getEnd().isAfter(to) ? to : interval.getEnd();
+                if (busyTo != null && !start.isAfter(busyTo)) {
+                    if (end.isAfter(busyTo)) {
+                        busyTo = end;
+                    }
+                    continue;
+                }
+                if (busyTo != null) {
+                    busy.add(new TimeSlotDto(busyFrom, busyTo));
+                    freeFrom = busyTo;
+                }
+                if (start.isAfter(freeFrom)) {
+                    free.add(new TimeSlotDto(freeFrom, start));
+                }
+                busyFrom = start;
+                busyTo = end;
+            }
+            if (busyTo != null) {
+                busy.add(new TimeSlotDto(busyFrom, busyTo));
+                freeFrom = busyTo;
+            }
+            if (to.isAfter(freeFrom)) {
+                free.add(new TimeSlotDto(freeFrom, to));
+            }
+        }
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .busy(busy)
+                .free(free)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> search(String text, SearchOrder order, int from, int size) {
         if (Objects.isNull(text) || text.isBlank()) {
             return Collections.emptyList();
         }
-        return itemRepository.findAllByNameOrDescription(text, PageRequest.of(from / size, size));
+        List<Integer> ids = itemSearchCache.get(text, order, from, size,
+                () -> searchEngine.search(text, order, from, size));
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Integer, ItemDto> items = itemRepository.findDtosByIdIn(ids).stream()
+                .collect(Collectors.toMap(ItemDto::getId, item -> item));
+        // предмет мог быть удалён после поиска по индексу
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<String> suggest(String prefix, int size) {
+        return itemNameSuggester.suggest(prefix, size);
     }
 
     @Override
     @Transactional
     public Comment addComment(CommentDto dto, int itemId, int userId) {
-        LocalDateTime nowTime = LocalDateTime.now();
-        Booking booking = bookingRepository.findFirstByItem_IdAndBooker_IdAndEndBefore(itemId, userId, nowTime)
-                .orElseThrow(() -> new APIBadRequestException("Невозможно оставить комментарий"));
+        if (!completedBookingIndex.hasCompleted(itemId, userId)) {
+            throw new APIBadRequestException("Невозможно оставить комментарий");
+        }
         Comment comment = new Comment();
-        comment.setAuthor(booking.getBooker());
-        comment.setItem(booking.getItem());
+        comment.setAuthor(userRepository.findById(userId)
+                .orElseThrow(() -> new APIBadRequestException("Невозможно оставить комментарий")));
+        comment.setItem(itemRepository.findById(itemId)
+                .orElseThrow(() -> new APIBadRequestException("Невозможно оставить комментарий")));
         comment.setText(dto.getText());
-        comment.setCreated(nowTime);
-        return commentRepository.save(comment);
+        comment.setCreated(LocalDateTime.now());
+        comment = commentRepository.save(comment);
+        itemRepository.incrementCommentCount(itemId);
+        eventPublisher.publishEvent(ItemChangedEvent.commented(List.of(itemId)));
+        return comment;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CommentDto> getComments(int itemId, String cursor, int size) {
+        List<CommentDto> comments;
+        if (Objects.isNull(cursor)) {
+            comments = commentRepository.findPageByItemId(itemId, PageRequest.of(0, size));
+        } else {
+            CommentCursor commentCursor = CommentCursor.decode(cursor);
+            comments = commentRepository.findPageByItemIdAfter(
+                    itemId, commentCursor.getCreated(), commentCursor.getId(), PageRequest.of(0, size));
+        }
+        if (comments.isEmpty() && !itemRepository.existsById(itemId)) {
+            throw new APINotFoundException("Предмет %d не найден ", itemId);
+        }
+        return comments;
     }
 
     private ItemRequest getItemRequestById(int itemRequestId) {
@@ -173,4 +295,19 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new APINotFoundException("Запрос id %d не найден", itemRequestId));
     }
 
+    private AdjacentBookings findAdjacentBookings(Collection<Integer> itemIds) {
+        AdjacentBookings adjacent = new AdjacentBookings();
+        for (AdjacentBooking booking : bookingRepository.findAdjacentBookings(itemIds, LocalDateTime.now())) {
+            BookingSnapshot snapshot = booking.getBooking();
+            Map<Integer, ShortBookingDto> target = booking.isLast() ? adjacent.last : adjacent.next;
+            target.put(snapshot.getItemId(), BookingMapper.toShortBookingDto(snapshot, snapshot.getStatus()));
+        }
+        return adjacent;
+    }
+
+    private static class AdjacentBookings {
+        private final Map<Integer, ShortBookingDto> last = new HashMap<>();
+        private final Map<Integer, ShortBookingDto> next = new HashMap<>();
+    }
+
 }
@@ -2,18 +2,22 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
+import ru.practicum.shareit.request.dto.RequestSuggestionDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestCursor;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
 import java.util.List;
+import java.util.Objects;
 
 @Slf4j
 @RestController
@@ -23,6 +27,8 @@ import java.util.List;
 @Validated
 public class ItemRequestController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ItemRequestService itemRequestService;
 
     @PostMapping
@@ -44,13 +50,31 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestWithItemsDto> getRequests(
+    public ResponseEntity<List<ItemRequestWithItemsDto>> getRequests(
+            @RequestHeader("X-Sharer-User-Id") int userId,
+            @RequestParam(defaultValue = "0") @Min(0) int from,
+            @RequestParam(defaultValue = "10") @Min(1) int size,
+            @RequestParam(required = false) String cursor
+    ) {
+        log.info("getRequests {} {} {} {}", userId, from, size, cursor);
+        List<ItemRequestWithItemsDto> requests = Objects.isNull(cursor)
+                ? itemRequestService.getRequests(userId, from, size)
+                : itemRequestService.getRequestsAfter(userId, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (requests.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, RequestCursor.of(requests.get(requests.size() - 1)).encode());
+        }
+        return response.body(requests);
+    }
+
+    @GetMapping("/suggestions")
+    public List<RequestSuggestionDto> getSuggestions(
             @RequestHeader("X-Sharer-User-Id") int userId,
             @RequestParam(defaultValue = "0") @Min(0) int from,
             @RequestParam(defaultValue = "10") @Min(1) int size
     ) {
-        log.info("getRequests {} {} {}", userId, from, size);
-        return itemRequestService.getRequests(userId, from, size);
+        log.info("getSuggestions {} {} {}", userId, from, size);
+        return itemRequestService.getSuggestions(userId, from, size);
     }
 
     @GetMapping("/{requestId}")
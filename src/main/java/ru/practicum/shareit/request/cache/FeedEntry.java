@@ -0,0 +1,14 @@
+package ru.practicum.shareit.request.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
+
+@Getter
+@AllArgsConstructor
+public class FeedEntry {
+
+    private final int requesterId;
+    private final ItemRequestWithItemsDto request;
+
+}
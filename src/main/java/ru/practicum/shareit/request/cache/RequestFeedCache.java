@@ -0,0 +1,96 @@
+package ru.practicum.shareit.request.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
+import ru.practicum.shareit.request.model.RequestCursor;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.util.TransactionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Общее для всех пользователей начало ленты запросов: первые window запросов всех пользователей вместе
+ * с предметами. Свои запросы пользователя отбрасываются уже при чтении, поэтому одна запись обслуживает
+ * всех. Если после фильтрации окна не хватает на страницу, страница читается из базы.
+ */
+@Component
+public class RequestFeedCache {
+
+    static final String NAME = "requests.feed";
+
+    private final AtomicLong feedVersion = new AtomicLong();
+    private final Cache<Long, List<FeedEntry>> cache;
+    private final int window;
+
+    public RequestFeedCache(@Value("${shareit.request.feed.window:100}") int window, MeterRegistry meterRegistry) {
+        this.window = window;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(2)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    /**
+     * Страница ленты без запросов userId: после курсора, если он задан, иначе со смещением from.
+     * Пусто, если страница выходит за окно и её нужно читать из базы.
+     */
+    public Optional<List<ItemRequestWithItemsDto>> findPage(
+            int userId, RequestCursor after, int from, int size, IntFunction<List<FeedEntry>> loader
+    ) {
+        if (TransactionUtils.isReadWrite()) {
+            return Optional.empty();
+        }
+        List<FeedEntry> feed = cache.get(feedVersion.get(), version -> List.copyOf(loader.apply(window)));
+        List<ItemRequestWithItemsDto> page = new ArrayList<>(size);
+        int skipped = 0;
+        for (FeedEntry entry : feed) {
+            if (entry.getRequesterId() == userId
+                    || Objects.nonNull(after) && !after.isBefore(entry.getRequest())
+                    || skipped++ < from) {
+                continue;
+            }
+            page.add(entry.getRequest());
+            if (page.size() == size) {
+                return Optional.of(page);
+            }
+        }
+        // окно короче лимита — значит в нём вся лента и страница честно закончилась
+        return feed.size() < window ? Optional.of(page) : Optional.empty();
+    }
+
+    public void invalidate() {
+        TransactionUtils.afterCommit(feedVersion::incrementAndGet);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.isRequestItemsChanged()) {
+            feedVersion.incrementAndGet();
+        }
+    }
+
+    // запросы пользователя и предметы под чужими запросами удалены каскадом
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserDeleted(UserDeletedEvent event) {
+        feedVersion.incrementAndGet();
+    }
+
+    public long getFeedVersion() {
+        return feedVersion.get();
+    }
+
+}
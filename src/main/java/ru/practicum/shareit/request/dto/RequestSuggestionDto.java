@@ -0,0 +1,25 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class RequestSuggestionDto {
+
+    private Integer requestId;
+    private ItemDto item;
+    private Double score;
+    private LocalDateTime created;
+
+    public RequestSuggestionDto(Integer requestId, Integer itemId, String name, String description, Boolean available,
+                                Integer ownerId, Double score, LocalDateTime created) {
+        this(requestId, new ItemDto(itemId, name, description, available, ownerId, null), score, created);
+    }
+
+}
@@ -1,14 +1,14 @@
 package ru.practicum.shareit.request.mapper;
 
-import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 public class ItemRequestMapper {
 
@@ -28,12 +28,12 @@ public class ItemRequestMapper {
         return itemRequest;
     }
 
-    public static ItemRequestWithItemsDto toWithItemsDto(ItemRequest itemRequest) {
+    public static ItemRequestWithItemsDto toWithItemsDto(ItemRequest itemRequest, List<ItemDto> items) {
         return ItemRequestWithItemsDto.builder()
                 .id(itemRequest.getId())
                 .description(itemRequest.getDescription())
                 .created(itemRequest.getCreated())
-                .items(itemRequest.getItems().stream().map(ItemMapper::toItemDto).collect(Collectors.toList()))
+                .items(items)
                 .build();
     }
 }
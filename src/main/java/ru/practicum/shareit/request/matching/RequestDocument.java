@@ -0,0 +1,18 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class RequestDocument {
+
+    private final Integer id;
+    private final Integer requesterId;
+    private final String description;
+
+}
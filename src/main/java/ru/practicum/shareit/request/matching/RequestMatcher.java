@@ -0,0 +1,300 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.search.SearchTokenizer;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.util.TransactionUtils;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Подбор открытых запросов к предмету. Слова описаний открытых запросов хранятся в инвертированном индексе
+ * в памяти. Оценка запроса - доля веса его слов, найденных у предмета; вес слова тем больше, чем реже оно
+ * среди запросов.
+ * <p>
+ * Для каждого слова известна верхняя граница его доли в оценке любого содержащего его запроса. Слова с самыми
+ * низкими границами, которые даже все вместе не дотягивают до порога, не порождают кандидатов: их списки
+ * запросов не читаются, а вклад учитывается только у кандидатов, найденных по остальным словам. Поэтому
+ * частые слова вроде «ищу» не делают подбор линейным по числу запросов.
+ */
+@Slf4j
+@Component
+public class RequestMatcher {
+
+    // предлоги и одиночные буквы почти не отличают один запрос от другого
+    private static final int MIN_TERM_LENGTH = 3;
+    // вес любого слова не меньше log(1 + N / df) при df = N
+    private static final double MIN_WEIGHT = Math.log(2);
+    // длина запроса для границы; более длинные запросы считаются такими, что граница остаётся верной
+    private static final int MAX_TRACKED_LENGTH = 8;
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final double minScore;
+    private final int maxMatches;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Posting> postings = new HashMap<>();
+    private final Map<Integer, OpenRequest> requests = new HashMap<>();
+    private volatile boolean loaded;
+
+    public RequestMatcher(
+            ItemRequestRepository itemRequestRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${shareit.request.matching.min-score:0.5}") double minScore,
+            @Value("${shareit.request.matching.max-matches:20}") int maxMatches
+    ) {
+        this.itemRequestRepository = itemRequestRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.minScore = minScore;
+        this.maxMatches = maxMatches;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    try (Stream<RequestDocument> documents = itemRequestRepository.streamOpenDocuments()) {
+                        documents.forEach(document -> put(
+                                document.getId(), document.getRequesterId(), document.getDescription()));
+                    }
+                });
+                loaded = true;
+                log.info("Loaded {} open requests for matching", requests.size());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Открытые запросы чужих пользователей, подходящие к тексту предмета не хуже порога, от лучшего к худшему.
+     */
+    public List<RequestMatch> match(int ownerId, String text) {
+        Set<String> terms = terms(text);
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+        load();
+        lock.readLock().lock();
+        try {
+            List<RequestMatch> matches = new ArrayList<>();
+            for (int requestId : candidates(terms)) {
+                OpenRequest request = requests.get(requestId);
+                if (request.requesterId == ownerId) {
+                    continue;
+                }
+                double matchedWeight = 0;
+                double totalWeight = 0;
+                for (String term : request.terms) {
+                    double weight = weight(term);
+                    totalWeight += weight;
+                    if (terms.contains(term)) {
+                        matchedWeight += weight;
+                    }
+                }
+                double score = matchedWeight / totalWeight;
+                if (score >= minScore) {
+                    matches.add(new RequestMatch(requestId, request.requesterId, score));
+                }
+            }
+            matches.sort(Comparator.comparingDouble(RequestMatch::getScore).reversed()
+                    .thenComparingInt(RequestMatch::getRequestId));
+            return matches.size() > maxMatches ? new ArrayList<>(matches.subList(0, maxMatches)) : matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void index(ItemRequest request) {
+        int requestId = request.getId();
+        int requesterId = request.getRequester().getId();
+        String description = request.getDescription();
+        TransactionUtils.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                put(requestId, requesterId, description);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void index(Collection<RequestDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            documents.forEach(document -> put(document.getId(), document.getRequesterId(), document.getDescription()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Collection<Integer> requestIds) {
+        lock.writeLock().lock();
+        try {
+            requestIds.forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeRequester(int requesterId) {
+        lock.writeLock().lock();
+        try {
+            List<Integer> requestIds = requests.entrySet().stream()
+                    .filter(entry -> entry.getValue().requesterId == requesterId)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+            requestIds.forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // на запрос ответили - другие предметы к нему не подбираются, запрос без предметов снова открыт
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onItemChanged(ItemChangedEvent event) {
+        Set<Integer> answeredRequestIds = event.getAnsweredRequestIds();
+        if (!answeredRequestIds.isEmpty()) {
+            remove(answeredRequestIds);
+        }
+        if (!event.getReopenedRequests().isEmpty()) {
+            index(event.getReopenedRequests());
+        }
+    }
+
+    // запросы удалённого пользователя удаляются из базы каскадом
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserDeleted(UserDeletedEvent event) {
+        removeRequester(event.getUserId());
+    }
+
+    /**
+     * Запросы, которые могут набрать порог: содержат хотя бы одно слово предмета вне отсекаемого набора.
+     */
+    Set<Integer> candidates(String text) {
+        Set<String> terms = terms(text);
+        load();
+        lock.readLock().lock();
+        try {
+            return candidates(terms);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<Integer> candidates(Set<String> terms) {
+        List<String> known = terms.stream()
+                .filter(postings::containsKey)
+                .sorted(Comparator.comparingDouble(this::upperBound))
+                .collect(Collectors.toList());
+        // запрос, совпавший только по словам с суммой границ ниже порога, порог не наберёт
+        double skippedBound = 0;
+        int essential = 0;
+        while (essential < known.size() && skippedBound + upperBound(known.get(essential)) < minScore) {
+            skippedBound += upperBound(known.get(essential));
+            essential++;
+        }
+        Set<Integer> candidates = new HashSet<>();
+        for (String term : known.subList(essential, known.size())) {
+            candidates.addAll(postings.get(term).requestIds);
+        }
+        return candidates;
+    }
+
+    // доля слова в оценке не больше w / (w + (k - 1) * MIN_WEIGHT) для самого короткого запроса из k слов с ним
+    private double upperBound(String term) {
+        double weight = weight(term);
+        return weight / (weight + (postings.get(term).minLength() - 1) * MIN_WEIGHT);
+    }
+
+    private void put(int requestId, int requesterId, String description) {
+        remove(requestId);
+        Set<String> terms = terms(description);
+        if (terms.isEmpty()) {
+            return;
+        }
+        requests.put(requestId, new OpenRequest(requesterId, terms));
+        terms.forEach(term -> postings.computeIfAbsent(term, key -> new Posting()).add(requestId, terms.size()));
+    }
+
+    private void remove(int requestId) {
+        OpenRequest request = requests.remove(requestId);
+        if (request == null) {
+            return;
+        }
+        for (String term : request.terms) {
+            Posting posting = postings.get(term);
+            posting.remove(requestId, request.terms.size());
+            if (posting.requestIds.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private double weight(String term) {
+        return Math.log(1.0 + (double) requests.size() / postings.get(term).requestIds.size());
+    }
+
+    private static Set<String> terms(String text) {
+        return SearchTokenizer.tokenize(text).stream()
+                .filter(term -> term.length() >= MIN_TERM_LENGTH)
+                .collect(Collectors.toSet());
+    }
+
+    private static class Posting {
+        private final Set<Integer> requestIds = new HashSet<>();
+        // число запросов с этим словом по количеству слов в них
+        private final int[] lengths = new int[MAX_TRACKED_LENGTH + 1];
+
+        private void add(int requestId, int length) {
+            requestIds.add(requestId);
+            lengths[Math.min(length, MAX_TRACKED_LENGTH)]++;
+        }
+
+        private void remove(int requestId, int length) {
+            requestIds.remove(requestId);
+            lengths[Math.min(length, MAX_TRACKED_LENGTH)]--;
+        }
+
+        private int minLength() {
+            for (int length = 1; length < MAX_TRACKED_LENGTH; length++) {
+                if (lengths[length] > 0) {
+                    return length;
+                }
+            }
+            return MAX_TRACKED_LENGTH;
+        }
+    }
+
+    @AllArgsConstructor
+    private static class OpenRequest {
+        private final int requesterId;
+        private final Set<String> terms;
+    }
+
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.RequestSuggestion;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.repository.RequestSuggestionRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Предлагает новый предмет авторам подходящих открытых запросов. Подбор и запись идут в отдельном потоке
+ * после коммита, создание предмета их не ждёт.
+ */
+@Slf4j
+@Component
+public class RequestSuggester {
+
+    private final RequestMatcher requestMatcher;
+    private final RequestSuggestionRepository requestSuggestionRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+
+    public RequestSuggester(
+            RequestMatcher requestMatcher,
+            RequestSuggestionRepository requestSuggestionRepository,
+            ItemRepository itemRepository,
+            ItemRequestRepository itemRequestRepository,
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${shareit.request.matching.threads:1}") int threads
+    ) {
+        this.requestMatcher = requestMatcher;
+        this.requestSuggestionRepository = requestSuggestionRepository;
+        this.itemRepository = itemRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("request-matching-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newFixedThreadPool(threads, threadFactory);
+    }
+
+    public void submit(Item item) {
+        if (!item.isAvailable()) {
+            return;
+        }
+        int itemId = item.getId();
+        int ownerId = item.getOwner().getId();
+        String text = item.getName() + " " + item.getDescription();
+        executor.execute(() -> suggest(itemId, ownerId, text));
+    }
+
+    // импорт не подбирается: очередь пула не ограничена, а импорт может принести сотни тысяч предметов
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (!event.isImported()) {
+            event.getCreated().forEach(this::submit);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void suggest(int itemId, int ownerId, String text) {
+        try {
+            List<RequestMatch> matches = requestMatcher.match(ownerId, text);
+            if (matches.isEmpty()) {
+                return;
+            }
+            LocalDateTime created = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> {
+                Item item = itemRepository.getReferenceById(itemId);
+                requestSuggestionRepository.saveAll(matches.stream()
+                        .map(match -> new RequestSuggestion(
+                                null,
+                                itemRequestRepository.getReferenceById(match.getRequestId()),
+                                userRepository.getReferenceById(match.getRequesterId()),
+                                item,
+                                match.getScore(),
+                                created))
+                        .collect(Collectors.toList()));
+            });
+            log.debug("Suggested item {} for {} requests", itemId, matches.size());
+        } catch (RuntimeException e) {
+            // предмет или запрос могли удалить, пока шёл подбор
+            log.warn("Failed to suggest item {} for requests", itemId, e);
+        }
+    }
+
+}
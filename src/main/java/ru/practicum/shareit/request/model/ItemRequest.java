@@ -28,7 +28,7 @@ public class ItemRequest {
     @Column(name = "description", length = 512, nullable = false)
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requester_id")
     private User requester;
 
@@ -36,7 +36,8 @@ public class ItemRequest {
     @Column(name = "created", nullable = false)
     private LocalDateTime created;
 
-    @OneToMany(mappedBy = "request", fetch = FetchType.EAGER)
+    // для выдачи запросов предметы подгружаются одним запросом на страницу, см. ItemRepository.findDtosByRequestIdIn
+    @OneToMany(mappedBy = "request")
     List<Item> items;
 
 }
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.request.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.exception.APIBadRequestException;
+import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class RequestCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime created;
+    private final int id;
+
+    public static RequestCursor of(ItemRequestWithItemsDto request) {
+        return new RequestCursor(request.getCreated(), request.getId());
+    }
+
+    public static RequestCursor decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(SEPARATOR);
+            return new RequestCursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    Integer.parseInt(decoded.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new APIBadRequestException("Некорректный курсор %s", value);
+        }
+    }
+
+    public boolean isBefore(ItemRequestWithItemsDto request) {
+        int compared = created.compareTo(request.getCreated());
+        return compared < 0 || compared == 0 && id < request.getId();
+    }
+
+    public String encode() {
+        String value = created + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
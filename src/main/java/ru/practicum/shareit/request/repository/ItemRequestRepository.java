@@ -3,16 +3,40 @@ package ru.practicum.shareit.request.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.matching.RequestDocument;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Integer> {
 
     List<ItemRequest> findAllByRequesterId(int userId, Sort sort);
 
+    // лента пуста для несуществующего пользователя, поэтому непустая страница подтверждает его без отдельного запроса
+    @Query("select r from ItemRequest r where r.requester.id <> :userId" +
+            " and exists (select u.id from User u where u.id = :userId)")
     List<ItemRequest> findAllByRequesterIdIsNot(int userId, Pageable pageable);
 
+    @Query("select r from ItemRequest r where r.requester.id <> :userId" +
+            " and exists (select u.id from User u where u.id = :userId)" +
+            " and (r.created > :created or (r.created = :created and r.id > :requestId)) order by r.created, r.id")
+    List<ItemRequest> findAllByRequesterIdIsNotAfter(int userId, LocalDateTime created, int requestId, Pageable pageable);
+
+    @Query("select r from ItemRequest r order by r.created, r.id")
+    List<ItemRequest> findFeed(Pageable pageable);
+
+    @Query("select r.id from ItemRequest r where r.id in :requestIds")
+    List<Integer> findIdsByIdIn(Collection<Integer> requestIds);
+
+    // открытым считается запрос, на который ещё не предложили ни одного предмета
+    @Query("select new ru.practicum.shareit.request.matching.RequestDocument(r.id, r.requester.id, r.description)" +
+            " from ItemRequest r where not exists (select i.id from Item i where i.request = r)")
+    Stream<RequestDocument> streamOpenDocuments();
+
 }
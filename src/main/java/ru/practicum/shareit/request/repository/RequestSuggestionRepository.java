@@ -0,0 +1,20 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.dto.RequestSuggestionDto;
+import ru.practicum.shareit.request.model.RequestSuggestion;
+
+import java.util.List;
+
+@Repository
+public interface RequestSuggestionRepository extends JpaRepository<RequestSuggestion, Integer> {
+
+    @Query("select new ru.practicum.shareit.request.dto.RequestSuggestionDto(s.request.id, i.id, i.name, i.description," +
+            " i.available, i.owner.id, s.score, s.created) from RequestSuggestion s join s.item i" +
+            " where s.requester.id = :requesterId order by s.created desc, s.id desc")
+    List<RequestSuggestionDto> findPageByRequesterId(int requesterId, Pageable pageable);
+
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.request.service;
 
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
+import ru.practicum.shareit.request.dto.RequestSuggestionDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
@@ -14,6 +15,10 @@ public interface ItemRequestService {
 
     List<ItemRequestWithItemsDto> getRequests(int userId, int from, int size);
 
+    List<ItemRequestWithItemsDto> getRequestsAfter(int userId, String cursor, int size);
+
     ItemRequestWithItemsDto getRequestById(int userId, int requestId);
 
+    List<RequestSuggestionDto> getSuggestions(int userId, int from, int size);
+
 }
@@ -6,17 +6,29 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.APINotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.cache.FeedEntry;
+import ru.practicum.shareit.request.cache.RequestFeedCache;
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
+import ru.practicum.shareit.request.dto.RequestSuggestionDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.matching.RequestMatcher;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestCursor;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.repository.RequestSuggestionRepository;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,6 +37,10 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final RequestFeedCache requestFeedCache;
+    private final RequestMatcher requestMatcher;
+    private final RequestSuggestionRepository requestSuggestionRepository;
 
     @Override
     @Transactional
@@ -32,37 +48,53 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         User user = getUserById(userId);
         ItemRequest itemRequest = ItemRequestMapper.toModel(dto, user);
         itemRequest.setCreated(LocalDateTime.now());
-        return itemRequestRepository.save(itemRequest);
+        itemRequest = itemRequestRepository.save(itemRequest);
+        requestFeedCache.invalidate();
+        requestMatcher.index(itemRequest);
+        return itemRequest;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestWithItemsDto> getRequests(int userId) {
-        if (notExistsUserById(userId)) {
-            throw new APINotFoundException("Пользователь id %d не найден", userId);
-        }
-        return itemRequestRepository.findAllByRequesterId(
-                        userId,
-                        Sort.by(Sort.Direction.ASC, "created")
-                ).stream()
-                .map(ItemRequestMapper::toWithItemsDto)
-                .collect(Collectors.toList());
+        List<ItemRequestWithItemsDto> requests = withItems(itemRequestRepository.findAllByRequesterId(
+                userId,
+                Sort.by(Sort.Direction.ASC, "created")
+        ));
+        checkUserExists(requests, userId);
+        return requests;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestWithItemsDto> getRequests(int userId, int from, int size) {
-        if (notExistsUserById(userId)) {
-            throw new APINotFoundException("Пользователь id %d не найден", userId);
+        int offset = from / size * size;
+        Optional<List<ItemRequestWithItemsDto>> cached =
+                requestFeedCache.findPage(userId, null, offset, size, this::loadFeed);
+        if (cached.isPresent()) {
+            return checkCachedUser(cached.get(), userId);
         }
-        return itemRequestRepository.findAllByRequesterIdIsNot(userId, PageRequest.of(
-                        from / size,
-                        size,
-                        Sort.by(Sort.Direction.ASC, "created")
-                ))
-                .stream()
-                .map(ItemRequestMapper::toWithItemsDto)
-                .collect(Collectors.toList());
+        List<ItemRequestWithItemsDto> requests = withItems(itemRequestRepository.findAllByRequesterIdIsNot(
+                userId,
+                PageRequest.of(from / size, size, Sort.by(Sort.Direction.ASC, "created", "id"))
+        ));
+        checkUserExists(requests, userId);
+        return requests;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestWithItemsDto> getRequestsAfter(int userId, String cursor, int size) {
+        RequestCursor after = RequestCursor.decode(cursor);
+        Optional<List<ItemRequestWithItemsDto>> cached =
+                requestFeedCache.findPage(userId, after, 0, size, this::loadFeed);
+        if (cached.isPresent()) {
+            return checkCachedUser(cached.get(), userId);
+        }
+        List<ItemRequestWithItemsDto> requests = withItems(itemRequestRepository.findAllByRequesterIdIsNotAfter(
+                userId, after.getCreated(), after.getId(), PageRequest.of(0, size)));
+        checkUserExists(requests, userId);
+        return requests;
     }
 
     @Override
@@ -73,7 +105,42 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         }
         ItemRequest request = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new APINotFoundException("Запрос id %d не найден", requestId));
-        return ItemRequestMapper.toWithItemsDto(request);
+        return withItems(List.of(request)).get(0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RequestSuggestionDto> getSuggestions(int userId, int from, int size) {
+        if (notExistsUserById(userId)) {
+            throw new APINotFoundException("Пользователь id %d не найден", userId);
+        }
+        return requestSuggestionRepository.findPageByRequesterId(userId, PageRequest.of(from / size, size));
+    }
+
+    private List<FeedEntry> loadFeed(int window) {
+        List<ItemRequest> requests = itemRequestRepository.findFeed(PageRequest.of(0, window));
+        List<ItemRequestWithItemsDto> dtos = withItems(requests);
+        List<FeedEntry> feed = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            feed.add(new FeedEntry(requests.get(i).getRequester().getId(), dtos.get(i)));
+        }
+        return feed;
+    }
+
+    // предметы всей страницы одним запросом вместо ленивой коллекции у каждого запроса
+    private List<ItemRequestWithItemsDto> withItems(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Integer> requestIds = requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Integer, List<ItemDto>> itemsByRequest = itemRepository.findDtosByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(ItemDto::getRequestId));
+        return requests.stream()
+                .map(request -> ItemRequestMapper.toWithItemsDto(
+                        request, itemsByRequest.getOrDefault(request.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
     }
 
     private User getUserById(int userId) {
@@ -81,6 +148,21 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .orElseThrow(() -> new APINotFoundException("Пользователь id %d не найден", userId));
     }
 
+    // непустая страница уже доказывает существование пользователя, лишний запрос нужен только для пустой
+    private void checkUserExists(List<ItemRequestWithItemsDto> page, int userId) {
+        if (page.isEmpty() && notExistsUserById(userId)) {
+            throw new APINotFoundException("Пользователь id %d не найден", userId);
+        }
+    }
+
+    // общий кэш ленты не знает о читателе, так что страницу из него приходится подтверждать запросом
+    private List<ItemRequestWithItemsDto> checkCachedUser(List<ItemRequestWithItemsDto> page, int userId) {
+        if (notExistsUserById(userId)) {
+            throw new APINotFoundException("Пользователь id %d не найден", userId);
+        }
+        return page;
+    }
+
     private boolean notExistsUserById(int userId) {
         return !userRepository.existsById(userId);
     }
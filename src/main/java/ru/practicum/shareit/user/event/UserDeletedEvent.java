@@ -0,0 +1,23 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Set;
+
+/**
+ * Удаление пользователя. Его предметы, запросы и комментарии удалены из базы каскадом,
+ * индексы и кэши убирают их после коммита.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class UserDeletedEvent {
+
+    private final int userId;
+    private final Set<Integer> itemIds;
+    // карточки его предметов и предметов, которые он комментировал
+    private final Set<Integer> changedCardIds;
+
+}
@@ -1,24 +1,38 @@
 package ru.practicum.shareit.user.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.BookingSummaryTracker;
 import ru.practicum.shareit.exception.APINotFoundException;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.dto.CreateUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingSummaryTracker bookingSummaryTracker;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -34,8 +48,10 @@ public class UserServiceImpl implements UserService {
         if (Objects.nonNull(dto.getEmail()) && !dto.getEmail().equalsIgnoreCase(user.getEmail())) {
             user.setEmail(dto.getEmail());
         }
-        if (Objects.nonNull(dto.getName())) {
+        if (Objects.nonNull(dto.getName()) && !dto.getName().equals(user.getName())) {
             user.setName(dto.getName());
+            // имя автора показывается в комментариях карточек предметов
+            eventPublisher.publishEvent(ItemChangedEvent.commented(commentRepository.findItemIdsByAuthorId(user.getId())));
         }
         return userRepository.save(user);
     }
@@ -50,7 +66,22 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public void deleteUserById(int userId) {
+        Set<Integer> affectedUserIds = new HashSet<>(bookingRepository.findOwnerIdsByBookerId(userId));
+        affectedUserIds.addAll(bookingRepository.findBookerIdsByOwnerId(userId));
+        affectedUserIds.add(userId);
+        Set<Integer> itemIds = new HashSet<>(itemRepository.findIdsByOwnerId(userId));
+        Set<Integer> commentedItemIds = new HashSet<>(commentRepository.findItemIdsByAuthorId(userId));
+        Set<Integer> detailItemIds = new HashSet<>(commentedItemIds);
+        detailItemIds.addAll(itemIds);
+        commentedItemIds.removeAll(itemIds);
         userRepository.deleteById(userId);
+        userRepository.flush();
+        // комментарии пользователя удалены каскадом, у чужих предметов нужно пересчитать счётчик
+        if (!commentedItemIds.isEmpty()) {
+            itemRepository.recountComments(commentedItemIds);
+        }
+        eventPublisher.publishEvent(new UserDeletedEvent(userId, itemIds, detailItemIds));
+        bookingSummaryTracker.refresh(affectedUserIds);
     }
 
     @Override
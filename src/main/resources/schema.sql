@@ -25,8 +25,11 @@ CREATE TABLE IF NOT EXISTS ITEMS (
     IS_AVAILABLE    BOOLEAN                                 NOT NULL,
     OWNER_ID        BIGINT                                  NOT NULL,
     REQUEST_ID      BIGINT                                  NULL,
+    VERSION         BIGINT          DEFAULT 0               NOT NULL,
+    COMMENT_COUNT   BIGINT          DEFAULT 0               NOT NULL,
     CONSTRAINT PK_ITEMS PRIMARY KEY (ITEM_ID),
     CONSTRAINT UQ_ITEMS_OWNER UNIQUE (OWNER_ID, NAME),
+    CONSTRAINT UQ_ITEMS_ID_OWNER UNIQUE (ITEM_ID, OWNER_ID),
     CONSTRAINT ITEMS_OWNER_FK FOREIGN KEY (OWNER_ID) REFERENCES USERS(USER_ID)
     ON DELETE CASCADE ON UPDATE CASCADE,
     CONSTRAINT ITEMS_REQUEST_FK FOREIGN KEY (REQUEST_ID) REFERENCES REQUESTS(REQUEST_ID)
@@ -40,9 +43,12 @@ CREATE TABLE IF NOT EXISTS BOOKINGS (
     ITEM_ID     BIGINT                                  NOT NULL,
     BOOKER_ID   BIGINT                                  NOT NULL,
     STATUS      VARCHAR(10)                             NOT NULL,
+    OWNER_ID    BIGINT                                  NOT NULL,
     CONSTRAINT PK_BOOKINGS PRIMARY KEY (BOOKING_ID),
     CONSTRAINT BOOKINGS_ITEM_FK FOREIGN KEY (ITEM_ID) REFERENCES ITEMS(ITEM_ID)
     ON DELETE CASCADE ON UPDATE CASCADE,
+    CONSTRAINT BOOKINGS_ITEM_OWNER_FK FOREIGN KEY (ITEM_ID, OWNER_ID) REFERENCES ITEMS(ITEM_ID, OWNER_ID)
+    ON DELETE CASCADE ON UPDATE CASCADE,
     CONSTRAINT BOOKINGS_BOOKER_FK FOREIGN KEY (BOOKER_ID) REFERENCES USERS(USER_ID)
     ON DELETE CASCADE ON UPDATE CASCADE
 );
@@ -58,4 +64,74 @@ CREATE TABLE IF NOT EXISTS COMMENTS (
     ON DELETE CASCADE ON UPDATE CASCADE,
     CONSTRAINT COMMENTS_AUTHOR_FK FOREIGN KEY (AUTHOR_ID) REFERENCES USERS(USER_ID)
     ON DELETE CASCADE ON UPDATE CASCADE
-);
\ No newline at end of file
+);
+
+ALTER TABLE ITEMS ADD COLUMN IF NOT EXISTS VERSION BIGINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE ITEMS ADD COLUMN IF NOT EXISTS COMMENT_COUNT BIGINT;
+UPDATE ITEMS SET COMMENT_COUNT = (SELECT COUNT(*) FROM COMMENTS C WHERE C.ITEM_ID = ITEMS.ITEM_ID) WHERE COMMENT_COUNT IS NULL;
+ALTER TABLE ITEMS ALTER COLUMN COMMENT_COUNT SET DEFAULT 0;
+ALTER TABLE ITEMS ALTER COLUMN COMMENT_COUNT SET NOT NULL;
+
+-- идентификаторы предметов выдаются блоками из последовательности, чтобы вставлять предметы пачками
+CREATE SEQUENCE IF NOT EXISTS ITEMS_SEQ START WITH 50 INCREMENT BY 50;
+ALTER SEQUENCE ITEMS_SEQ RESTART WITH (SELECT GREATEST(COALESCE(MAX(ITEM_ID), 0) + 50, NEXT VALUE FOR ITEMS_SEQ) FROM ITEMS);
+
+ALTER TABLE BOOKINGS ADD COLUMN IF NOT EXISTS OWNER_ID BIGINT;
+UPDATE BOOKINGS SET OWNER_ID = (SELECT I.OWNER_ID FROM ITEMS I WHERE I.ITEM_ID = BOOKINGS.ITEM_ID) WHERE OWNER_ID IS NULL;
+ALTER TABLE BOOKINGS ALTER COLUMN OWNER_ID SET NOT NULL;
+ALTER TABLE ITEMS ADD CONSTRAINT IF NOT EXISTS UQ_ITEMS_ID_OWNER UNIQUE (ITEM_ID, OWNER_ID);
+ALTER TABLE BOOKINGS ADD CONSTRAINT IF NOT EXISTS BOOKINGS_ITEM_OWNER_FK FOREIGN KEY (ITEM_ID, OWNER_ID)
+    REFERENCES ITEMS(ITEM_ID, OWNER_ID) ON DELETE CASCADE ON UPDATE CASCADE;
+
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_BOOKER_START ON BOOKINGS (BOOKER_ID, START_DATE, BOOKING_ID);
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_OWNER_START ON BOOKINGS (OWNER_ID, START_DATE, BOOKING_ID);
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_ITEM_STATUS_PERIOD ON BOOKINGS (ITEM_ID, STATUS, START_DATE, END_DATE);
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_ITEM_START ON BOOKINGS (ITEM_ID, START_DATE);
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_ITEM_END ON BOOKINGS (ITEM_ID, END_DATE);
+DROP INDEX IF EXISTS IDX_BOOKINGS_ITEM_BOOKER_END;
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_STATUS_START ON BOOKINGS (STATUS, START_DATE);
+CREATE INDEX IF NOT EXISTS IDX_ITEMS_REQUEST ON ITEMS (REQUEST_ID);
+CREATE INDEX IF NOT EXISTS IDX_REQUESTS_REQUESTER_CREATED ON REQUESTS (REQUESTER_ID, CREATED);
+CREATE INDEX IF NOT EXISTS IDX_REQUESTS_CREATED ON REQUESTS (CREATED, REQUEST_ID);
+DROP INDEX IF EXISTS IDX_COMMENTS_ITEM;
+CREATE INDEX IF NOT EXISTS IDX_COMMENTS_ITEM_CREATED ON COMMENTS (ITEM_ID, CREATED, COMMENT_ID);
+CREATE INDEX IF NOT EXISTS IDX_COMMENTS_AUTHOR ON COMMENTS (AUTHOR_ID);
+
+CREATE TABLE IF NOT EXISTS BOOKING_COUNTERS (
+    USER_ID         BIGINT                                  NOT NULL,
+    ROLE            VARCHAR(10)                             NOT NULL,
+    STATUS          VARCHAR(10)                             NOT NULL,
+    BOOKING_COUNT   BIGINT                                  NOT NULL,
+    CONSTRAINT PK_BOOKING_COUNTERS PRIMARY KEY (USER_ID, ROLE, STATUS),
+    CONSTRAINT BOOKING_COUNTERS_USER_FK FOREIGN KEY (USER_ID) REFERENCES USERS(USER_ID)
+    ON DELETE CASCADE ON UPDATE CASCADE
+);
+
+INSERT INTO BOOKING_COUNTERS (USER_ID, ROLE, STATUS, BOOKING_COUNT)
+SELECT BOOKER_ID, 'BOOKER', STATUS, COUNT(*) FROM BOOKINGS
+WHERE NOT EXISTS (SELECT 1 FROM BOOKING_COUNTERS) GROUP BY BOOKER_ID, STATUS
+UNION ALL
+SELECT OWNER_ID, 'OWNER', STATUS, COUNT(*) FROM BOOKINGS
+WHERE NOT EXISTS (SELECT 1 FROM BOOKING_COUNTERS) GROUP BY OWNER_ID, STATUS;
+
+-- предметы, подобранные к открытым запросам по тексту описания; владелец запроса продублирован для выборки по нему
+CREATE TABLE IF NOT EXISTS REQUEST_SUGGESTIONS (
+    SUGGESTION_ID   BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    REQUEST_ID      BIGINT                                  NOT NULL,
+    REQUESTER_ID    BIGINT                                  NOT NULL,
+    ITEM_ID         BIGINT                                  NOT NULL,
+    SCORE           DOUBLE PRECISION                        NOT NULL,
+    CREATED         TIMESTAMP                               NOT NULL,
+    CONSTRAINT PK_REQUEST_SUGGESTIONS PRIMARY KEY (SUGGESTION_ID),
+    CONSTRAINT UQ_REQUEST_SUGGESTIONS_REQUEST_ITEM UNIQUE (REQUEST_ID, ITEM_ID),
+    CONSTRAINT REQUEST_SUGGESTIONS_REQUEST_FK FOREIGN KEY (REQUEST_ID) REFERENCES REQUESTS(REQUEST_ID)
+    ON DELETE CASCADE ON UPDATE CASCADE,
+    CONSTRAINT REQUEST_SUGGESTIONS_REQUESTER_FK FOREIGN KEY (REQUESTER_ID) REFERENCES USERS(USER_ID)
+    ON DELETE CASCADE ON UPDATE CASCADE,
+    CONSTRAINT REQUEST_SUGGESTIONS_ITEM_FK FOREIGN KEY (ITEM_ID) REFERENCES ITEMS(ITEM_ID)
+    ON DELETE CASCADE ON UPDATE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS IDX_REQUEST_SUGGESTIONS_REQUESTER_CREATED ON REQUEST_SUGGESTIONS (REQUESTER_ID, CREATED, SUGGESTION_ID);
+CREATE INDEX IF NOT EXISTS IDX_REQUEST_SUGGESTIONS_ITEM ON REQUEST_SUGGESTIONS (ITEM_ID);
@@ -0,0 +1,260 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepositoryCustom;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.repository.RequestSuggestionRepository;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@AutoConfigureTestDatabase
+@Import(StatementRecorder.class)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class QueryPlanTest {
+
+    private static final int USERS = 1_000;
+    private static final int REQUESTS = 2_000;
+    private static final int ITEMS = 5_000;
+    private static final int BOOKINGS = 50_000;
+    private static final int COMMENTS = 10_000;
+    private static final int SUGGESTIONS = 5_000;
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+    private static final List<Integer> IDS = List.of(1, 2, 3);
+
+    private static final Set<String> FULL_SCAN_ALLOWED = Set.of(
+            // поиск по подстроке '%text%' не может использовать B-tree индекс
+            "ItemRepository.findIdsByNameOrDescription",
+            "ItemRepository.findIdsByNameOrDescriptionRanked",
+            // разовая загрузка поискового индекса читает все доступные предметы
+            "ItemRepository.streamAvailableDocuments",
+            // разовая сверка поискового индекса с базой при запуске
+            "ItemRepository.countByAvailableTrue",
+            // разовая загрузка индекса для подбора читает все открытые запросы
+            "ItemRequestRepository.streamOpenDocuments"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TestEntityManager entityManager;
+    private final StatementRecorder statementRecorder;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final CommentRepository commentRepository;
+    private final RequestSuggestionRepository requestSuggestionRepository;
+
+    // каждый метод репозитория вызывается на засеянных данных, под EXPLAIN попадает SQL, который построил Hibernate
+    private Map<String, Runnable> queries() {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("BookingRepository.existsByItem_IdAndStatusAndStartBeforeAndEndAfter", () -> bookingRepository
+                .existsByItem_IdAndStatusAndStartBeforeAndEndAfter(1, BookingStatus.APPROVED, NOW, NOW));
+        queries.put("BookingRepository.findIntervalsByItemIdAndStatus", () -> bookingRepository
+                .findIntervalsByItemIdAndStatus(1, BookingStatus.APPROVED));
+        queries.put("BookingRepository.findIntervalsByItemIdInAndStatusInPeriod", () -> bookingRepository
+                .findIntervalsByItemIdInAndStatusInPeriod(IDS, BookingStatus.APPROVED, NOW, NOW.plusDays(1)));
+        queries.put("BookingRepository.streamIntervalsByItemIdInPeriod", () -> bookingRepository
+                .streamIntervalsByItemIdInPeriod(1, List.of(BookingStatus.APPROVED, BookingStatus.WAITING), NOW, NOW.plusDays(1))
+                .close());
+        queries.put("BookingRepository.findPeriodsByBookerId", () -> bookingRepository.findPeriodsByBookerId(1));
+        queries.put("BookingRepository.findPeriodsByOwnerId", () -> bookingRepository.findPeriodsByOwnerId(1));
+        queries.put("BookingRepository.findBookerIdsByItemId", () -> bookingRepository.findBookerIdsByItemId(1));
+        queries.put("BookingRepository.findBookerIdsByOwnerId", () -> bookingRepository.findBookerIdsByOwnerId(1));
+        queries.put("BookingRepository.findOwnerIdsByBookerId", () -> bookingRepository.findOwnerIdsByBookerId(1));
+        queries.put("BookingRepository.streamPeriodsByStatus", () -> bookingRepository
+                .streamPeriodsByStatus(BookingStatus.WAITING).close());
+        queries.put("BookingRepository.streamCompletionsByStatus", () -> bookingRepository
+                .streamCompletionsByStatus(BookingStatus.APPROVED).close());
+        queries.put("BookingRepository.findParticipantsForUpdate", () -> bookingRepository
+                .findParticipantsForUpdate(IDS, BookingStatus.WAITING));
+        queries.put("BookingRepository.findItemIdById", () -> bookingRepository.findItemIdById(1));
+        queries.put("BookingRepository.findByIdForUpdate", () -> bookingRepository.findByIdForUpdate(1));
+        queries.put("BookingRepository.findItemIdsByIdInAndOwnerId", () -> bookingRepository
+                .findItemIdsByIdInAndOwnerId(IDS, 1));
+        queries.put("BookingRepository.findSnapshotsForUpdate", () -> bookingRepository.findSnapshotsForUpdate(IDS, 1));
+        queries.put("BookingRepository.updateStatus", () -> bookingRepository.updateStatus(IDS, BookingStatus.CANCELED));
+        queries.put("BookingRepositoryCustom.findBookerPage", () -> bookingRepository
+                .findBookerPage(1, BookingState.WAITING, NOW, 10, 10));
+        queries.put("BookingRepositoryCustom.findOwnerPage", () -> bookingRepository
+                .findOwnerPage(1, BookingState.PAST, NOW, 10, 10));
+        queries.put("BookingRepositoryCustom.findBookerPageAfter", () -> bookingRepository
+                .findBookerPageAfter(1, BookingState.ALL, NOW, new BookingCursor(NOW, 100), 10));
+        queries.put("BookingRepositoryCustom.findOwnerPageAfter", () -> bookingRepository
+                .findOwnerPageAfter(1, BookingState.ALL, NOW, new BookingCursor(NOW, 100), 10));
+        queries.put("BookingRepositoryCustom.findAdjacentBookings", () -> bookingRepository.findAdjacentBookings(IDS, NOW));
+
+        queries.put("ItemRepository.findByIdForUpdate", () -> itemRepository.findByIdForUpdate(1));
+        queries.put("ItemRepository.findAllByIdInForUpdate", () -> itemRepository.findAllByIdInForUpdate(IDS));
+        queries.put("ItemRepository.findByIdWithVersionIncrement", () -> itemRepository.findByIdWithVersionIncrement(1));
+        queries.put("ItemRepository.findAllByIdInWithVersionIncrement", () -> itemRepository
+                .findAllByIdInWithVersionIncrement(IDS));
+        queries.put("ItemRepository.findAllByOwnerId", () -> itemRepository.findAllByOwnerId(1, PageRequest.of(0, 10)));
+        queries.put("ItemRepository.findIdsByNameOrDescription", () -> itemRepository
+                .findIdsByNameOrDescription("item1", PageRequest.of(0, 10)));
+        queries.put("ItemRepository.findIdsByNameOrDescriptionRanked", () -> itemRepository
+                .findIdsByNameOrDescriptionRanked("item1", PageRequest.of(0, 10)));
+        queries.put("ItemRepository.streamAvailableDocuments", () -> itemRepository.streamAvailableDocuments().close());
+        queries.put("ItemRepository.countByAvailableTrue", itemRepository::countByAvailableTrue);
+        queries.put("ItemRepository.findIdsByOwnerId", () -> itemRepository.findIdsByOwnerId(1));
+        queries.put("ItemRepository.existsByRequestId", () -> itemRepository.existsByRequestId(1));
+        queries.put("ItemRepository.findDtosByRequestIdIn", () -> itemRepository.findDtosByRequestIdIn(IDS));
+        queries.put("ItemRepository.findDtosByIdIn", () -> itemRepository.findDtosByIdIn(IDS));
+        queries.put("ItemRepository.findNamesByOwnerIdAndNameIn", () -> itemRepository
+                .findNamesByOwnerIdAndNameIn(1, List.of("item1", "item2")));
+        queries.put("ItemRepository.incrementCommentCount", () -> itemRepository.incrementCommentCount(1));
+        queries.put("ItemRepository.recountComments", () -> itemRepository.recountComments(IDS));
+        queries.put("ItemRequest.items", () -> itemRequestRepository.findById(4).orElseThrow().getItems().size());
+
+        queries.put("ItemRequestRepository.findAllByRequesterId", () -> itemRequestRepository
+                .findAllByRequesterId(1, Sort.by("created")));
+        queries.put("ItemRequestRepository.findAllByRequesterIdIsNot", () -> itemRequestRepository
+                .findAllByRequesterIdIsNot(1, PageRequest.of(0, 10, Sort.by("created", "id"))));
+        queries.put("ItemRequestRepository.findAllByRequesterIdIsNotAfter", () -> itemRequestRepository
+                .findAllByRequesterIdIsNotAfter(1, NOW, 1, PageRequest.of(0, 10)));
+        queries.put("ItemRequestRepository.findFeed", () -> itemRequestRepository.findFeed(PageRequest.of(0, 100)));
+        queries.put("ItemRequestRepository.findIdsByIdIn", () -> itemRequestRepository.findIdsByIdIn(IDS));
+        queries.put("ItemRequestRepository.streamOpenDocuments", () -> itemRequestRepository.streamOpenDocuments().close());
+
+        queries.put("RequestSuggestionRepository.findPageByRequesterId", () -> requestSuggestionRepository
+                .findPageByRequesterId(1, PageRequest.of(1, 10)));
+
+        queries.put("CommentRepository.findPageByItemId", () -> commentRepository.findPageByItemId(1, PageRequest.of(0, 10)));
+        queries.put("CommentRepository.findPageByItemIdAfter", () -> commentRepository
+                .findPageByItemIdAfter(1, NOW, 100, PageRequest.of(0, 10)));
+        queries.put("CommentRepository.findItemIdsByAuthorId", () -> commentRepository.findItemIdsByAuthorId(1));
+        return queries;
+    }
+
+    @BeforeAll
+    void seed() {
+        LocalDateTime base = LocalDateTime.of(2029, 1, 1, 0, 0);
+        batch("insert into users (user_id, name, email) values (?, ?, ?)", USERS,
+                i -> new Object[]{i, "user" + i, "user" + i + "@test.com"});
+        batch("insert into requests (request_id, description, requester_id, created) values (?, ?, ?, ?)", REQUESTS,
+                i -> new Object[]{i, "request " + i, i % USERS + 1, Timestamp.valueOf(base.plusMinutes(i))});
+        batch("insert into items (item_id, name, description, is_available, owner_id, request_id) values (?, ?, ?, ?, ?, ?)", ITEMS,
+                i -> new Object[]{i, "item" + i, "description " + i, i % 2 == 0, i % USERS + 1, i % 4 == 0 ? i % REQUESTS + 1 : null});
+        batch("insert into bookings (booking_id, start_date, end_date, item_id, booker_id, status, owner_id)" +
+                        " values (?, ?, ?, ?, ?, ?, ?)", BOOKINGS,
+                i -> new Object[]{i, Timestamp.valueOf(base.plusHours(i)), Timestamp.valueOf(base.plusHours(i + 2)),
+                        i % ITEMS + 1, (i * 7) % USERS + 1, i % 3 == 0 ? "WAITING" : "APPROVED", (i % ITEMS + 1) % USERS + 1});
+        batch("insert into comments (comment_id, text, item_id, author_id, created) values (?, ?, ?, ?, ?)", COMMENTS,
+                i -> new Object[]{i, "comment " + i, i % ITEMS + 1, i % USERS + 1, Timestamp.valueOf(base.plusMinutes(i))});
+        batch("insert into request_suggestions (suggestion_id, request_id, requester_id, item_id, score, created)" +
+                        " values (?, ?, ?, ?, ?, ?)", SUGGESTIONS,
+                i -> new Object[]{i, i % REQUESTS + 1, (i % REQUESTS + 1) % USERS + 1, i % ITEMS + 1, 0.5,
+                        Timestamp.valueOf(base.plusMinutes(i))});
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void everyRepositoryQueryHasPlanCheck() {
+        Set<String> expected = new TreeSet<>();
+        for (Class<?> repository : List.of(
+                BookingRepository.class,
+                BookingRepositoryCustom.class,
+                ItemRepository.class,
+                ItemRequestRepository.class,
+                CommentRepository.class,
+                RequestSuggestionRepository.class
+        )) {
+            for (Method method : repository.getDeclaredMethods()) {
+                if (!method.isSynthetic()) {
+                    expected.add(repository.getSimpleName() + "." + method.getName());
+                }
+            }
+        }
+        Set<String> covered = queries().keySet().stream()
+                .filter(name -> !name.startsWith("ItemRequest."))
+                .collect(Collectors.toCollection(TreeSet::new));
+        assertEquals(expected, covered);
+    }
+
+    @Test
+    void queriesDoNotScanWholeTables() {
+        List<String> failures = new ArrayList<>();
+        queries().forEach((name, query) -> {
+            entityManager.clear();
+            statementRecorder.start();
+            List<StatementRecorder.RecordedStatement> statements;
+            try {
+                query.run();
+                entityManager.flush();
+            } finally {
+                statements = statementRecorder.stop();
+            }
+            if (statements.isEmpty()) {
+                failures.add(name + ": запрос не дошёл до базы");
+            }
+            for (StatementRecorder.RecordedStatement statement : statements) {
+                String plan = explain(statement);
+                if (!FULL_SCAN_ALLOWED.contains(name) && plan.contains(".tableScan")) {
+                    failures.add(name + ":\n" + plan);
+                }
+            }
+        });
+        assertTrue(failures.isEmpty(), String.join("\n\n", failures));
+    }
+
+    @Test
+    void foreignKeysHaveExplicitIndexes() {
+        // H2 сам индексирует внешние ключи, PostgreSQL - нет, поэтому неявные FK_INDEX не учитываются
+        List<String> foreignKeys = jdbcTemplate.queryForList("select kcu.table_name || '.' || kcu.column_name" +
+                " from information_schema.key_column_usage kcu join information_schema.table_constraints tc" +
+                " on tc.constraint_name = kcu.constraint_name and tc.constraint_type = 'FOREIGN KEY'", String.class);
+        Set<String> indexed = new HashSet<>(jdbcTemplate.queryForList("select ic.table_name || '.' || ic.column_name" +
+                " from information_schema.index_columns ic where ic.ordinal_position = 1" +
+                " and ic.index_name not like '%FK_INDEX%'", String.class));
+        List<String> missing = foreignKeys.stream()
+                .filter(foreignKey -> !indexed.contains(foreignKey))
+                .collect(Collectors.toList());
+        assertTrue(missing.isEmpty(), "Нет индекса для внешних ключей " + missing);
+    }
+
+    private String explain(StatementRecorder.RecordedStatement statement) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.getSql())) {
+                statement.bind(explain);
+                try (ResultSet plan = explain.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
+
+    private void batch(String sql, int count, IntFunction<Object[]> row) {
+        jdbcTemplate.batchUpdate(sql, IntStream.rangeClosed(1, count).mapToObj(row).collect(Collectors.toList()));
+    }
+
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SchemaMigrationTest {
+
+    @Test
+    void addsBookingOwnerForeignKeyToExistingDatabase() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:schema-migration;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        // база до появления OWNER_ID в бронированиях
+        jdbcTemplate.execute("CREATE TABLE USERS (USER_ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY," +
+                " NAME VARCHAR(255) NOT NULL, EMAIL VARCHAR(512) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE ITEMS (ITEM_ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY," +
+                " NAME VARCHAR(255) NOT NULL, DESCRIPTION VARCHAR(512) NOT NULL, IS_AVAILABLE BOOLEAN NOT NULL," +
+                " OWNER_ID BIGINT NOT NULL REFERENCES USERS(USER_ID), REQUEST_ID BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE BOOKINGS (BOOKING_ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY," +
+                " START_DATE TIMESTAMP NOT NULL, END_DATE TIMESTAMP NOT NULL," +
+                " ITEM_ID BIGINT NOT NULL REFERENCES ITEMS(ITEM_ID), BOOKER_ID BIGINT NOT NULL REFERENCES USERS(USER_ID)," +
+                " STATUS VARCHAR(10) NOT NULL)");
+        jdbcTemplate.update("INSERT INTO USERS (USER_ID, NAME, EMAIL) VALUES (1, 'owner', 'owner@test.com')," +
+                " (2, 'booker', 'booker@test.com')");
+        jdbcTemplate.update("INSERT INTO ITEMS (ITEM_ID, NAME, DESCRIPTION, IS_AVAILABLE, OWNER_ID)" +
+                " VALUES (1, 'item', 'description', true, 1)");
+        jdbcTemplate.update("INSERT INTO BOOKINGS (START_DATE, END_DATE, ITEM_ID, BOOKER_ID, STATUS)" +
+                " VALUES (CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 1, 2, 'WAITING')");
+
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+        populator.execute(dataSource);
+        populator.execute(dataSource);
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS" +
+                " WHERE CONSTRAINT_NAME = 'BOOKINGS_ITEM_OWNER_FK'", Integer.class));
+        // владелец бронирования следует за владельцем предмета
+        jdbcTemplate.update("UPDATE ITEMS SET OWNER_ID = 2 WHERE ITEM_ID = 1");
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT OWNER_ID FROM BOOKINGS", Integer.class));
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Оборачивает DataSource и, пока включена запись, запоминает выполненные подготовленные запросы вместе
+ * с вызовами set* для параметров, чтобы их можно было повторить под EXPLAIN.
+ */
+class StatementRecorder implements BeanPostProcessor {
+
+    private final List<RecordedStatement> statements = new ArrayList<>();
+    private volatile boolean recording;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource)) {
+            return bean;
+        }
+        return proxy(ClassUtils.getAllInterfacesForClass(bean.getClass()), (method, args) -> {
+            Object result = method.invoke(bean, args);
+            return result instanceof Connection ? connection((Connection) result) : result;
+        });
+    }
+
+    synchronized void start() {
+        statements.clear();
+        recording = true;
+    }
+
+    synchronized List<RecordedStatement> stop() {
+        recording = false;
+        return new ArrayList<>(statements);
+    }
+
+    private Connection connection(Connection connection) {
+        return proxy(new Class<?>[]{Connection.class}, (method, args) -> {
+            Object result = method.invoke(connection, args);
+            if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement) {
+                return statement((PreparedStatement) result, (String) args[0]);
+            }
+            return result;
+        });
+    }
+
+    private PreparedStatement statement(PreparedStatement statement, String sql) {
+        List<ParameterCall> parameters = new ArrayList<>();
+        return proxy(new Class<?>[]{PreparedStatement.class}, (method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length > 1 && args[0] instanceof Integer) {
+                parameters.add(new ParameterCall(method, args));
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                record(sql, parameters);
+            }
+            return method.invoke(statement, args);
+        });
+    }
+
+    private synchronized void record(String sql, List<ParameterCall> parameters) {
+        if (recording) {
+            statements.add(new RecordedStatement(sql, List.copyOf(parameters)));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<?>[] interfaces, Invocation invocation) {
+        return (T) Proxy.newProxyInstance(StatementRecorder.class.getClassLoader(), interfaces, (proxy, method, args) -> {
+            try {
+                return invocation.invoke(method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    private interface Invocation {
+        Object invoke(Method method, Object[] args) throws Throwable;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class RecordedStatement {
+
+        private final String sql;
+        private final List<ParameterCall> parameters;
+
+        void bind(PreparedStatement statement) throws SQLException {
+            for (ParameterCall parameter : parameters) {
+                try {
+                    parameter.method.invoke(statement, parameter.args);
+                } catch (ReflectiveOperationException e) {
+                    throw new SQLException("Не удалось повторить параметр запроса " + sql, e);
+                }
+            }
+        }
+
+    }
+
+    @AllArgsConstructor
+    private static class ParameterCall {
+        private final Method method;
+        private final Object[] args;
+    }
+
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.booking;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.practicum.shareit.booking.availability.IntervalSet;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvailabilityIndexBenchmark {
+
+    private static final String OVERLAP_QUERY = "select count(1) > 0 from bookings b where b.item_id = ? and b.status = ?" +
+            " and ((b.start_date between ? and ?) or (b.end_date between ? and ?))";
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Param({"10000", "100000", "1000000"})
+    private int bookingsPerItem;
+
+    private IntervalSet intervals;
+    private Connection connection;
+    private PreparedStatement overlapStatement;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AvailabilityIndexBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException, IOException {
+        intervals = new IntervalSet();
+        for (int i = 0; i < bookingsPerItem; i++) {
+            intervals.add(slotStart(i), slotStart(i).plusHours(1));
+        }
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:benchmark" + bookingsPerItem, "test", "test");
+        try (Statement statement = connection.createStatement();
+             InputStream schema = getClass().getResourceAsStream("/schema.sql")) {
+            for (String sql : new String(schema.readAllBytes(), StandardCharsets.UTF_8).split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+            statement.execute("insert into users (user_id, name, email) values (1, 'owner', 'owner@test.com')");
+            statement.execute("insert into users (user_id, name, email) values (2, 'booker', 'booker@test.com')");
+            statement.execute("insert into items (item_id, name, description, is_available, owner_id)" +
+                    " values (1, 'item', 'item', true, 1)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("insert into bookings" +
+                " (start_date, end_date, item_id, booker_id, status, owner_id) values (?, ?, 1, 2, ?, 1)")) {
+            for (int i = 0; i < bookingsPerItem; i++) {
+                insert.setTimestamp(1, Timestamp.valueOf(slotStart(i)));
+                insert.setTimestamp(2, Timestamp.valueOf(slotStart(i).plusHours(1)));
+                insert.setString(3, BookingStatus.APPROVED.name());
+                insert.addBatch();
+                if (i % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        overlapStatement = connection.prepareStatement(OVERLAP_QUERY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        overlapStatement.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public boolean intervalIndex() {
+        LocalDateTime start = randomStart();
+        return intervals.overlaps(start, start.plusMinutes(30));
+    }
+
+    @Benchmark
+    public boolean repositoryQuery() throws SQLException {
+        LocalDateTime start = randomStart();
+        overlapStatement.setInt(1, 1);
+        overlapStatement.setString(2, BookingStatus.APPROVED.name());
+        overlapStatement.setTimestamp(3, Timestamp.valueOf(start));
+        overlapStatement.setTimestamp(4, Timestamp.valueOf(start.plusMinutes(30)));
+        overlapStatement.setTimestamp(5, Timestamp.valueOf(start));
+        overlapStatement.setTimestamp(6, Timestamp.valueOf(start.plusMinutes(30)));
+        try (ResultSet resultSet = overlapStatement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getBoolean(1);
+        }
+    }
+
+    private LocalDateTime slotStart(int slot) {
+        return BASE.plusHours(2L * slot);
+    }
+
+    private LocalDateTime randomStart() {
+        return slotStart(ThreadLocalRandom.current().nextInt(bookingsPerItem)).plusMinutes(45);
+    }
+
+}
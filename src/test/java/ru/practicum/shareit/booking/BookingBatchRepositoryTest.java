@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingBatchRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@DataJpaTest
+@AutoConfigureTestDatabase
+@Import(BookingBatchRepository.class)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingBatchRepositoryTest {
+
+    private final BookingBatchRepository bookingBatchRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    @Test
+    void insertAllAssignsGeneratedIds() {
+        User owner = userRepository.save(new User(null, "owner", "owner@test.com"));
+        User booker = userRepository.save(new User(null, "booker", "booker@test.com"));
+        Item item = new Item();
+        item.setName("item");
+        item.setDescription("description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.saveAndFlush(item);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Booking> bookings = List.of(
+                new Booking(null, start, start.plusHours(1), item, booker, BookingStatus.WAITING, null),
+                new Booking(null, start.plusHours(2), start.plusHours(3), item, booker, BookingStatus.WAITING, null)
+        );
+        bookingBatchRepository.insertAll(bookings);
+
+        for (Booking booking : bookings) {
+            assertNotNull(booking.getId());
+            Booking saved = bookingRepository.findById(booking.getId()).orElseThrow();
+            assertEquals(booking.getStart(), saved.getStart());
+            assertEquals(BookingStatus.WAITING, saved.getStatus());
+        }
+    }
+
+}
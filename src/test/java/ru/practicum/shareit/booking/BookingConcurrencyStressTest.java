@@ -0,0 +1,151 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.availability.BookingInterval;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.completion.CompletedBookingIndex;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.expiry.BookingExpiryWheel;
+import ru.practicum.shareit.booking.lock.ItemLockManager;
+import ru.practicum.shareit.booking.lock.ItemLockStrategy;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingBatchRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.impl.BookingServiceImpl;
+import ru.practicum.shareit.booking.stream.BookingEventPublisher;
+import ru.practicum.shareit.booking.summary.BookingSummaryTracker;
+import ru.practicum.shareit.exception.APIException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:stress;LOCK_TIMEOUT=10000")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingConcurrencyStressTest {
+
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS_PER_THREAD = 25;
+    private static final int SLOTS = 24;
+
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingBatchRepository bookingBatchRepository;
+    private final BookingSummaryTracker bookingSummaryTracker;
+    private final BookingExpiryWheel bookingExpiryWheel;
+    private final BookingEventPublisher bookingEventPublisher;
+    private final CompletedBookingIndex completedBookingIndex;
+    private final PlatformTransactionManager transactionManager;
+
+    @ParameterizedTest
+    @EnumSource(ItemLockStrategy.class)
+    void approvedBookingsNeverOverlap(ItemLockStrategy strategy) throws Exception {
+        User owner = userRepository.save(new User(null, "owner", strategy + "-owner@test.com"));
+        List<Integer> bookerIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookerIds.add(userRepository.save(new User(null, "booker" + i, strategy + "-booker" + i + "@test.com")).getId());
+        }
+        Item item = new Item();
+        item.setName("item-" + strategy);
+        item.setDescription("description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        int itemId = itemRepository.save(item).getId();
+
+        BookingService bookingService = new BookingServiceImpl(
+                bookingRepository,
+                userRepository,
+                new ItemAvailabilityIndex(bookingRepository, 100, new SimpleMeterRegistry()),
+                bookingBatchRepository,
+                bookingSummaryTracker,
+                bookingExpiryWheel,
+                new ItemLockManager(itemRepository, strategy, 64),
+                bookingEventPublisher,
+                completedBookingIndex
+        );
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int bookerId = bookerIds.get(t);
+            Random random = new Random(t);
+            workers.add(executor.submit(() -> {
+                startSignal.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    LocalDateTime start = base.plusHours(random.nextInt(SLOTS));
+                    CreateBookingDto dto = CreateBookingDto.builder()
+                            .itemId(itemId)
+                            .start(start)
+                            .end(start.plusHours(1 + random.nextInt(3)))
+                            .build();
+                    try {
+                        Booking booking = transaction.execute(status -> bookingService.createBooking(dto, bookerId));
+                        transaction.execute(status -> bookingService.approveBooking(booking.getId(), true, owner.getId()));
+                        approved.incrementAndGet();
+                    } catch (APIException e) {
+                        rejected.incrementAndGet();
+                    } catch (ConcurrencyFailureException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        startSignal.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        executor.shutdown();
+        log.info("{}: {} attempts in {} s ({} ops/s), approved {}, rejected {}, conflicts {}", strategy,
+                THREADS * ATTEMPTS_PER_THREAD, String.format("%.2f", seconds),
+                String.format("%.0f", THREADS * ATTEMPTS_PER_THREAD / seconds), approved, rejected, conflicts);
+
+        List<BookingInterval> intervals = new ArrayList<>(bookingRepository.findIntervalsByItemIdAndStatus(itemId, BookingStatus.APPROVED));
+        intervals.sort(Comparator.comparing(BookingInterval::getStart));
+        assertFalse(intervals.isEmpty());
+        assertEquals(approved.get(), intervals.size());
+        for (int i = 1; i < intervals.size(); i++) {
+            assertTrue(!intervals.get(i).getStart().isBefore(intervals.get(i - 1).getEnd()),
+                    strategy + " double booking " + intervals.get(i - 1) + " and " + intervals.get(i));
+        }
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD, approved.get() + rejected.get() + conflicts.get());
+    }
+
+}
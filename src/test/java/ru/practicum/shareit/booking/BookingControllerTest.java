@@ -7,25 +7,44 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.stream.BookingEvent;
+import ru.practicum.shareit.booking.stream.BookingEventPublisher;
 import ru.practicum.shareit.exception.CustomExceptionHandler;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = {BookingController.class, CustomExceptionHandler.class})
@@ -135,7 +154,7 @@ public class BookingControllerTest {
         Booking model = BookingMapper.toModel(bookingDto, user, item);
         model.setId(1);
         when(bookingService.getAllBookingsByBookerId(anyInt(), any(), anyInt(), anyInt()))
-                .thenReturn(List.of(model));
+                .thenReturn(List.of(view(model)));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", "1")
@@ -172,7 +191,7 @@ public class BookingControllerTest {
         Booking model = BookingMapper.toModel(bookingDto, user, item);
         model.setId(1);
         when(bookingService.getAllBookingByItemsByOwnerId(anyInt(), any(), anyInt(), anyInt()))
-                .thenReturn(List.of(model));
+                .thenReturn(List.of(view(model)));
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", "1")
@@ -218,4 +237,194 @@ public class BookingControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.error").exists());
     }
-}
\ No newline at end of file
+
+    @Test
+    void createBookings() throws Exception {
+        Item item = new Item();
+        item.setId(1);
+        item.setName("TestItem");
+        item.setDescription("DescriptionTest");
+        item.setAvailable(true);
+
+        User user = new User(2, "test2", "test2@test.com");
+        CreateBookingDto bookingDto = CreateBookingDto.builder()
+                .itemId(1)
+                .start(LocalDateTime.now().plusHours(1))
+                .end(LocalDateTime.now().plusHours(2))
+                .build();
+        Booking model = BookingMapper.toModel(bookingDto, user, item);
+        model.setId(1);
+        model.setStatus(BookingStatus.WAITING);
+        when(bookingService.createBookings(anyList(), anyInt()))
+                .thenReturn(List.of(
+                        BookingBatchResultDto.builder().index(0).success(true).booking(BookingMapper.toDto(model)).build(),
+                        BookingBatchResultDto.builder().index(1).success(false).error("error").build()
+                ));
+
+        mvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", "2")
+                        .content(mapper.writeValueAsString(List.of(bookingDto, bookingDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].success").value(true))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].booking.id").value(model.getId()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].success").value(false))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].error").value("error"));
+    }
+
+    @Test
+    void createBookingsRejectsOversizedBatch() throws Exception {
+        CreateBookingDto bookingDto = CreateBookingDto.builder()
+                .itemId(1)
+                .start(LocalDateTime.now().plusHours(1))
+                .end(LocalDateTime.now().plusHours(2))
+                .build();
+
+        mvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", "2")
+                        .content(mapper.writeValueAsString(Collections.nCopies(101, bookingDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void decideBookings() throws Exception {
+        when(bookingService.decideBookings(anyList(), eq(3)))
+                .thenReturn(List.of(
+                        BookingDecisionResultDto.builder().index(0).success(true)
+                                .booking(ShortBookingDto.builder().id(1).status(BookingStatus.APPROVED).build()).build(),
+                        BookingDecisionResultDto.builder().index(1).success(false).error("error").build()
+                ));
+
+        mvc.perform(patch("/bookings/owner/decisions")
+                        .header("X-Sharer-User-Id", "3")
+                        .content(mapper.writeValueAsString(List.of(new BookingDecisionDto(1, true), new BookingDecisionDto(2, false))))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].booking.status").value("APPROVED"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].error").value("error"));
+    }
+
+    @Test
+    void decideBookingsRejectsOversizedList() throws Exception {
+        mvc.perform(patch("/bookings/owner/decisions")
+                        .header("X-Sharer-User-Id", "3")
+                        .content(mapper.writeValueAsString(Collections.nCopies(101, new BookingDecisionDto(1, true))))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void getAllBookingsByCursor() throws Exception {
+        Item item = new Item();
+        item.setId(1);
+        User user = new User(2, "test2", "test2@test.com");
+        CreateBookingDto bookingDto = CreateBookingDto.builder()
+                .start(LocalDateTime.of(2030, 1, 1, 12, 0))
+                .end(LocalDateTime.of(2030, 1, 1, 13, 0))
+                .build();
+        Booking model = BookingMapper.toModel(bookingDto, user, item);
+        model.setId(5);
+        String cursor = new BookingCursor(LocalDateTime.of(2030, 1, 2, 0, 0), 7).encode();
+        when(bookingService.getAllBookingsByBookerIdAfter(anyInt(), any(), eq(cursor), eq(1)))
+                .thenReturn(List.of(view(model)));
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", "2")
+                        .param("cursor", cursor)
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+                .andExpect(MockMvcResultMatchers.header().string("X-Next-Cursor", BookingCursor.of(model).encode()));
+    }
+
+    @Test
+    void getAllBookingItemsByCursorLastPage() throws Exception {
+        String cursor = new BookingCursor(LocalDateTime.of(2030, 1, 2, 0, 0), 7).encode();
+        when(bookingService.getAllBookingByItemsByOwnerIdAfter(anyInt(), any(), eq(cursor), anyInt()))
+                .thenReturn(List.of());
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", "2")
+                        .param("cursor", cursor)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(0))
+                .andExpect(MockMvcResultMatchers.header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void streamOwnerBookings() throws Exception {
+        BookingEventPublisher publisher = new BookingEventPublisher(Duration.ofMinutes(1), 16, 1);
+        when(bookingService.subscribeOwnerBookings(2)).thenAnswer(invocation -> publisher.subscribe(2));
+        try {
+            MvcResult result = mvc.perform(get("/bookings/owner/stream")
+                            .header("X-Sharer-User-Id", "2")
+                            .accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                    .andReturn();
+            assertEquals(1, publisher.getSubscriberCount(2));
+
+            publisher.publish(List.of(
+                    BookingEvent.statusChanged(2, ShortBookingDto.builder().id(7).status(BookingStatus.APPROVED).build()),
+                    BookingEvent.statusChanged(3, ShortBookingDto.builder().id(8).status(BookingStatus.REJECTED).build())
+            ));
+            String content = "";
+            for (int i = 0; i < 50 && !content.contains("APPROVED"); i++) {
+                Thread.sleep(100);
+                content = result.getResponse().getContentAsString();
+            }
+            assertTrue(content.contains("event:STATUS_CHANGED"), content);
+            assertTrue(content.contains("id:7"), content);
+            assertFalse(content.contains("id:8"), content);
+        } finally {
+            publisher.shutdown();
+        }
+        assertEquals(0, publisher.getSubscriberCount(2));
+    }
+
+    @Test
+    void getBookerSummary() throws Exception {
+        when(bookingService.getBookingSummary(2, BookingRole.BOOKER))
+                .thenReturn(Map.of(BookingState.ALL, 16L, BookingState.WAITING, 3L));
+
+        mvc.perform(get("/bookings/summary")
+                        .header("X-Sharer-User-Id", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.ALL").value(16))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.WAITING").value(3));
+    }
+
+    @Test
+    void getOwnerSummary() throws Exception {
+        when(bookingService.getBookingSummary(2, BookingRole.OWNER))
+                .thenReturn(Map.of(BookingState.CURRENT, 1L));
+
+        mvc.perform(get("/bookings/owner/summary")
+                        .header("X-Sharer-User-Id", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.CURRENT").value(1));
+    }
+
+    private static BookingView view(Booking booking) {
+        Item item = booking.getItem();
+        return new BookingView(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                item.getId(), item.getName(), item.getDescription(), item.isAvailable(), null, null,
+                booking.getBooker().getId(), booking.getBooker().getName(), booking.getBooker().getEmail());
+    }
+
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.exception.APIBadRequestException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BookingCursorTest {
+
+    @Test
+    void encodeDecode() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2030, 1, 1, 12, 30, 15), 42);
+        assertEquals(cursor, BookingCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void decodeInvalid() {
+        assertThrows(APIBadRequestException.class, () -> BookingCursor.decode("not a cursor"));
+        assertThrows(APIBadRequestException.class, () -> BookingCursor.decode("MjAzMA"));
+    }
+
+}
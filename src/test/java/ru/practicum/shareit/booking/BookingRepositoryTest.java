@@ -0,0 +1,205 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.booking.model.AdjacentBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.BookingParticipants;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingRepositoryTest {
+
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final TestEntityManager entityManager;
+
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+    private User owner;
+    private User booker;
+    private Item item;
+    private List<Booking> bookings;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", "owner@test.com"));
+        booker = userRepository.save(new User(null, "booker", "booker@test.com"));
+        item = new Item();
+        item.setName("item");
+        item.setDescription("description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+
+        bookings = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            LocalDateTime start = now.plusDays(i / 2 - 1);
+            BookingStatus status = i % 3 == 0 ? BookingStatus.WAITING : BookingStatus.APPROVED;
+            bookings.add(bookingRepository.save(new Booking(null, start, start.plusHours(1), item, booker, status, null)));
+        }
+        bookings.sort(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId).reversed());
+    }
+
+    @Test
+    void findBookerPageAfterWalksAllPages() {
+        assertEquals(ids(bookings), viewIds(walk(true, BookingState.ALL, 3)));
+    }
+
+    @Test
+    void findOwnerPageAfterWalksAllPages() {
+        assertEquals(ids(bookings), viewIds(walk(false, BookingState.ALL, 2)));
+    }
+
+    @Test
+    void findPageAfterFiltersByState() {
+        List<BookingView> waiting = walk(true, BookingState.WAITING, 1);
+        assertEquals(
+                ids(bookings.stream().filter(b -> b.getStatus() == BookingStatus.WAITING).collect(Collectors.toList())),
+                viewIds(waiting)
+        );
+        assertTrue(walk(false, BookingState.FUTURE, 2).stream().allMatch(b -> b.getStart().isAfter(now)));
+        assertTrue(walk(false, BookingState.PAST, 2).stream().allMatch(b -> b.getEnd().isBefore(now)));
+    }
+
+    @Test
+    void findPageStartsAtFrom() {
+        // from не обязан быть кратен size: страница начинается ровно с from-й записи
+        assertEquals(ids(bookings.subList(3, 5)), viewIds(bookingRepository.findBookerPage(booker.getId(), BookingState.ALL, now, 3, 2)));
+        assertEquals(ids(bookings.subList(4, 7)), viewIds(bookingRepository.findBookerPage(booker.getId(), BookingState.ALL, now, 4, 3)));
+        assertEquals(ids(bookings.subList(6, 7)), viewIds(bookingRepository.findOwnerPage(owner.getId(), BookingState.ALL, now, 6, 3)));
+    }
+
+    @Test
+    void findPageSelectsItemAndBooker() {
+        entityManager.clear();
+        BookingView view = bookingRepository.findBookerPage(booker.getId(), BookingState.ALL, now, 0, 1).get(0);
+        Booking booking = bookings.get(0);
+        assertEquals(booking.getId(), view.getId());
+        assertEquals(booking.getStart(), view.getStart());
+        assertEquals(booking.getEnd(), view.getEnd());
+        assertEquals(booking.getStatus(), view.getStatus());
+        assertEquals(item.getId(), view.getItemId());
+        assertEquals(item.getName(), view.getItemName());
+        assertEquals(item.getDescription(), view.getItemDescription());
+        assertTrue(view.isItemAvailable());
+        assertEquals(owner.getId(), view.getItemOwnerId());
+        assertNull(view.getItemRequestId());
+        assertEquals(booker.getId(), view.getBookerId());
+        assertEquals(booker.getName(), view.getBookerName());
+        assertEquals(booker.getEmail(), view.getBookerEmail());
+    }
+
+    @Test
+    void findAdjacentBookingsReturnsOneLastAndNextPerItem() {
+        Item empty = new Item();
+        empty.setName("empty");
+        empty.setDescription("description");
+        empty.setAvailable(true);
+        empty.setOwner(owner);
+        empty = itemRepository.save(empty);
+        Booking rejected = bookingRepository.save(new Booking(null, now.plusMinutes(30), now.plusMinutes(40), item, booker,
+                BookingStatus.REJECTED, null));
+        entityManager.flush();
+
+        List<AdjacentBooking> adjacent = bookingRepository.findAdjacentBookings(List.of(item.getId(), empty.getId()), now);
+        Booking last = bookings.stream()
+                .filter(b -> b.getStart().isBefore(now))
+                .max(Comparator.comparing(Booking::getEnd).thenComparing(Booking::getId))
+                .orElseThrow();
+        Booking next = bookings.stream()
+                .filter(b -> b.getStart().isAfter(now))
+                .min(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId))
+                .orElseThrow();
+        assertTrue(next.getStart().isAfter(rejected.getStart()));
+        assertEquals(2, adjacent.size());
+        for (AdjacentBooking booking : adjacent) {
+            assertEquals(item.getId(), booking.getBooking().getItemId());
+            assertEquals(booking.isLast() ? last.getId() : next.getId(), booking.getBooking().getId());
+        }
+        assertTrue(bookingRepository.findAdjacentBookings(List.of(), now).isEmpty());
+    }
+
+    @Test
+    void ownerIdFollowsItemOwnership() {
+        assertTrue(bookings.stream().allMatch(booking -> owner.getId().equals(booking.getOwnerId())));
+
+        User newOwner = userRepository.save(new User(null, "new owner", "new-owner@test.com"));
+        item.setOwner(newOwner);
+        itemRepository.saveAndFlush(item);
+        entityManager.clear();
+
+        assertEquals(bookings.size(), bookingRepository.findOwnerPage(newOwner.getId(), BookingState.ALL, now, 0, 10).size());
+        assertTrue(bookingRepository.findOwnerPage(owner.getId(), BookingState.ALL, now, 0, 10).isEmpty());
+    }
+
+    @Test
+    void updateStatusCancelsOnlyLockedWaitingBookings() {
+        List<Integer> allIds = ids(bookings);
+        List<BookingParticipants> waiting = bookingRepository.findParticipantsForUpdate(allIds, BookingStatus.WAITING);
+        assertEquals(3, waiting.size());
+        assertTrue(waiting.stream().allMatch(b -> b.getBookerId().equals(booker.getId()) && b.getOwnerId().equals(owner.getId())));
+
+        List<Integer> waitingIds = waiting.stream().map(BookingParticipants::getBookingId).collect(Collectors.toList());
+        assertEquals(3, bookingRepository.updateStatus(waitingIds, BookingStatus.CANCELED));
+        entityManager.clear();
+        assertTrue(bookingRepository.findParticipantsForUpdate(allIds, BookingStatus.WAITING).isEmpty());
+        assertEquals(3, bookingRepository.findParticipantsForUpdate(allIds, BookingStatus.CANCELED).size());
+    }
+
+    @Test
+    void findSnapshotsForUpdateFiltersByOwner() {
+        List<Integer> allIds = ids(bookings);
+        assertEquals(bookings.size(), bookingRepository.findSnapshotsForUpdate(allIds, owner.getId()).size());
+        assertTrue(bookingRepository.findSnapshotsForUpdate(allIds, booker.getId()).isEmpty());
+    }
+
+    private List<BookingView> walk(boolean byBooker, BookingState state, int size) {
+        List<BookingView> result = new ArrayList<>();
+        BookingCursor cursor = new BookingCursor(now.plusYears(100), Integer.MAX_VALUE);
+        while (true) {
+            List<BookingView> page = byBooker
+                    ? bookingRepository.findBookerPageAfter(booker.getId(), state, now, cursor, size)
+                    : bookingRepository.findOwnerPageAfter(owner.getId(), state, now, cursor, size);
+            result.addAll(page);
+            if (page.size() < size) {
+                return result;
+            }
+            cursor = BookingCursor.of(page.get(page.size() - 1));
+        }
+    }
+
+    private List<Integer> ids(List<Booking> bookings) {
+        return bookings.stream().map(Booking::getId).collect(Collectors.toList());
+    }
+
+    private List<Integer> viewIds(List<BookingView> views) {
+        return views.stream().map(BookingView::getId).collect(Collectors.toList());
+    }
+
+}
@@ -1,37 +1,66 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.availability.BookingInterval;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.completion.CompletedBookingIndex;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.expiry.BookingExpiryWheel;
+import ru.practicum.shareit.booking.lock.ItemLockManager;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.repository.BookingBatchRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.impl.BookingServiceImpl;
+import ru.practicum.shareit.booking.stream.BookingEventPublisher;
+import ru.practicum.shareit.booking.stream.BookingEventType;
+import ru.practicum.shareit.booking.summary.BookingParticipants;
+import ru.practicum.shareit.booking.summary.BookingSummaryTracker;
 import ru.practicum.shareit.exception.APIBadRequestException;
+import ru.practicum.shareit.exception.APIConflictException;
 import ru.practicum.shareit.exception.APINotFoundException;
 import ru.practicum.shareit.item.dto.CreateItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,14 +72,39 @@ public class BookingServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private ItemRepository itemRepository;
+    private BookingBatchRepository bookingBatchRepository;
+
+    @Mock
+    private BookingSummaryTracker bookingSummaryTracker;
+
+    @Mock
+    private BookingExpiryWheel bookingExpiryWheel;
+
+    @Mock
+    private ItemLockManager itemLockManager;
+
+    @Mock
+    private BookingEventPublisher bookingEventPublisher;
+
+    @Mock
+    private CompletedBookingIndex completedBookingIndex;
 
     @InjectMocks
     private BookingServiceImpl bookingService;
 
     @BeforeEach
     void init() {
-        bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository);
+        bookingService = new BookingServiceImpl(
+                bookingRepository,
+                userRepository,
+                new ItemAvailabilityIndex(bookingRepository, 100, new SimpleMeterRegistry()),
+                bookingBatchRepository,
+                bookingSummaryTracker,
+                bookingExpiryWheel,
+                itemLockManager,
+                bookingEventPublisher,
+                completedBookingIndex
+        );
     }
 
     @Test
@@ -72,10 +126,82 @@ public class BookingServiceTest {
                 .end(LocalDateTime.now().plusHours(2))
                 .build();
         Booking model = BookingMapper.toModel(dto, newUser, item);
-        when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
+        when(itemLockManager.lock(anyInt())).thenReturn(Optional.of(item));
         when(userRepository.findById(anyInt())).thenReturn(Optional.of(newUser));
         when(bookingRepository.save(any())).thenReturn(model);
         assertEquals(model, bookingService.createBooking(dto, bookerId));
+        verify(bookingSummaryTracker).created(List.of(model));
+    }
+
+    @Test
+    void addBooking_whenApprovedBookingEnclosesPeriod() {
+        int bookerId = 1;
+        User booker = new User(bookerId, "test", "test@test.com");
+        CreateItemDto itemDto = new CreateItemDto("TestItem", "DescriptionTest", true, null, null);
+        Item item = ItemMapper.toModel(itemDto, new User(2, "test2", "test2@test.com"), null);
+        item.setId(1);
+
+        LocalDateTime start = LocalDateTime.now().plusHours(2);
+        LocalDateTime end = LocalDateTime.now().plusHours(3);
+        CreateBookingDto dto = CreateBookingDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(end)
+                .build();
+        when(itemLockManager.lock(anyInt())).thenReturn(Optional.of(item));
+        when(bookingRepository.findIntervalsByItemIdAndStatus(item.getId(), BookingStatus.APPROVED))
+                .thenReturn(List.of(new BookingInterval(item.getId(), start.minusHours(1), end.plusHours(1))));
+
+        assertThrows(APINotFoundException.class, () -> bookingService.createBooking(dto, booker.getId()));
+    }
+
+    @Test
+    void addBookingsReportsEachEntry() {
+        int bookerId = 1;
+        User booker = new User(bookerId, "test", "test@test.com");
+        User owner = new User(2, "test2", "test2@test.com");
+        CreateItemDto itemDto = new CreateItemDto("TestItem", "DescriptionTest", true, null, null);
+        Item item = ItemMapper.toModel(itemDto, owner, null);
+        item.setId(1);
+        Item bookedItem = ItemMapper.toModel(itemDto, owner, null);
+        bookedItem.setId(2);
+
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        LocalDateTime end = LocalDateTime.now().plusHours(2);
+        List<CreateBookingDto> dtos = Arrays.asList(
+                CreateBookingDto.builder().itemId(item.getId()).start(start).end(end).build(),
+                CreateBookingDto.builder().itemId(bookedItem.getId()).start(start).end(end).build(),
+                CreateBookingDto.builder().itemId(3).start(start).end(end).build(),
+                CreateBookingDto.builder().itemId(item.getId()).start(end).end(start).build(),
+                null
+        );
+        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
+        when(itemLockManager.lockAll(any())).thenReturn(List.of(item, bookedItem));
+        when(bookingRepository.findIntervalsByItemIdInAndStatusInPeriod(any(), any(), any(), any()))
+                .thenReturn(List.of(new BookingInterval(bookedItem.getId(), start.minusHours(1), end.plusHours(1))));
+        doAnswer(invocation -> {
+            List<Booking> bookings = invocation.getArgument(0);
+            for (int i = 0; i < bookings.size(); i++) {
+                bookings.get(i).setId(10 + i);
+            }
+            return null;
+        }).when(bookingBatchRepository).insertAll(anyList());
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(dtos, bookerId);
+
+        assertEquals(5, results.size());
+        assertTrue(results.get(0).getSuccess());
+        assertEquals(10, results.get(0).getBooking().getId());
+        assertEquals(BookingStatus.WAITING, results.get(0).getBooking().getStatus());
+        for (int i = 1; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertFalse(results.get(i).getSuccess());
+        }
+    }
+
+    @Test
+    void addBookingsEmpty() {
+        assertThrows(APIBadRequestException.class, () -> bookingService.createBookings(Collections.emptyList(), 1));
     }
 
     @Test
@@ -91,7 +217,6 @@ public class BookingServiceTest {
         User user = new User(bookerId, "test2", "test2@test.com");
         Item item = ItemMapper.toModel(itemDto, user, null);
         item.setId(1);
-        itemRepository.save(item);
 
         assertThrows(APIBadRequestException.class, () -> bookingService.createBooking(dto, bookerId));
     }
@@ -110,7 +235,7 @@ public class BookingServiceTest {
         item.setId(1);
         item.setAvailable(false);
 
-        when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
+        when(itemLockManager.lock(anyInt())).thenReturn(Optional.of(item));
 
         assertThrows(APIBadRequestException.class, () -> bookingService.createBooking(dto, owner.getId()));
     }
@@ -145,7 +270,7 @@ public class BookingServiceTest {
         CreateItemDto itemDto = new CreateItemDto("TestItem", "DescriptionTest", true, null, null);
         Item item = ItemMapper.toModel(itemDto, owner, null);
         item.setId(1);
-        when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
+        when(itemLockManager.lock(anyInt())).thenReturn(Optional.of(item));
         assertThrows(APINotFoundException.class, () -> bookingService.createBooking(dto, owner.getId()));
     }
 
@@ -153,7 +278,7 @@ public class BookingServiceTest {
     void approveBookingNotBooking() {
         int itemId = 1;
         int bookerId = 1;
-        when(bookingRepository.findById(anyInt())).thenReturn(Optional.empty());
+        when(bookingRepository.findItemIdById(anyInt())).thenReturn(Optional.empty());
         assertThrows(APINotFoundException.class, () -> bookingService.approveBooking(bookerId, true, itemId));
     }
 
@@ -172,7 +297,8 @@ public class BookingServiceTest {
         Item item = ItemMapper.toModel(itemDto, owner, null);
         item.setId(1);
 
-        when(bookingRepository.findById(anyInt())).thenReturn(Optional.of(BookingMapper.toModel(
+        when(bookingRepository.findItemIdById(anyInt())).thenReturn(Optional.of(1));
+        when(bookingRepository.findByIdForUpdate(anyInt())).thenReturn(Optional.of(BookingMapper.toModel(
                 dto,
                 owner,
                 item
@@ -198,9 +324,23 @@ public class BookingServiceTest {
         booking.setId(1);
         booking.setStatus(BookingStatus.WAITING);
 
-        when(bookingRepository.findById(anyInt())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findItemIdById(anyInt())).thenReturn(Optional.of(1));
+        when(bookingRepository.findByIdForUpdate(anyInt())).thenReturn(Optional.of(booking));
 
         assertEquals(booking, bookingService.approveBooking(bookerId, true, owner.getId()));
+        verify(bookingSummaryTracker).statusChanged(
+                List.of(BookingParticipants.of(booking)), BookingStatus.WAITING, BookingStatus.APPROVED);
+        verify(completedBookingIndex).addApproved(item.getId(), owner.getId(), booking.getEnd());
+        verify(bookingEventPublisher).publish(argThat(events -> events.size() == 1 && events.stream().allMatch(event ->
+                event.getOwnerId() == owner.getId()
+                        && event.getType() == BookingEventType.STATUS_CHANGED
+                        && event.getBooking().getStatus() == BookingStatus.APPROVED)));
+    }
+
+    @Test
+    void subscribeOwnerBookingsNotFoundUser() {
+        assertThrows(APINotFoundException.class, () -> bookingService.subscribeOwnerBookings(1));
+        verify(bookingEventPublisher, never()).subscribe(anyInt());
     }
 
     @Test
@@ -254,96 +394,48 @@ public class BookingServiceTest {
 
     @Test
     void getAllBookings() {
-        CreateBookingDto dto = CreateBookingDto.builder()
-                .itemId(1)
-                .start(LocalDateTime.now())
-                .end(LocalDateTime.now().plusHours(1))
-                .build();
-
-        User owner = new User(1, "test2", "test2@test.com");
-        CreateItemDto itemDto = new CreateItemDto("TestItem", "DescriptionTest", true, null, null);
-        Item item = ItemMapper.toModel(itemDto, owner, null);
-        item.setId(1);
-        Booking booking = BookingMapper.toModel(dto, owner, item);
-
-        when(userRepository.existsById(anyInt())).thenReturn(true);
-        when(bookingRepository.findAllByBookerId(anyInt(), any()))
-                .thenReturn(Collections.singletonList(BookingMapper.toModel(dto, owner, item)));
+        List<BookingView> page = Collections.singletonList(bookingView(LocalDateTime.now()));
+        when(bookingRepository.findBookerPage(anyInt(), eq(BookingState.ALL), any(), eq(0), eq(10))).thenReturn(page);
 
-        assertEquals(
-                Collections.singletonList(booking),
-                bookingService.getAllBookingsByBookerId(owner.getId(), BookingState.ALL, 0, 10)
-        );
+        assertEquals(page, bookingService.getAllBookingsByBookerId(1, BookingState.ALL, 0, 10));
+        verify(userRepository, never()).existsById(anyInt());
     }
 
     @Test
-    void getPastBookings() {
-        CreateBookingDto dto = CreateBookingDto.builder()
-                .itemId(1)
-                .start(LocalDateTime.now().minusHours(3))
-                .end(LocalDateTime.now().minusHours(2))
-                .build();
-
-        User owner = new User(1, "test2", "test2@test.com");
-        CreateItemDto itemDto = new CreateItemDto("TestItem", "DescriptionTest", true, null, null);
-        Item item = ItemMapper.toModel(itemDto, owner, null);
-        item.setId(1);
-        Booking booking = BookingMapper.toModel(dto, owner, item);
-
-        when(userRepository.existsById(anyInt())).thenReturn(true);
-        when(bookingRepository.findByBookerIdAndEndBefore(anyInt(), any(), any())).thenReturn(Collections.singletonList(BookingMapper.toModel(dto, owner, item)));
-
-        assertEquals(
-                Collections.singletonList(booking),
-                bookingService.getAllBookingsByBookerId(owner.getId(), BookingState.PAST, 0, 10)
-        );
+    void getBookingsByState() {
+        List<BookingView> page = Collections.singletonList(bookingView(LocalDateTime.now().minusHours(3)));
+        when(bookingRepository.findBookerPage(anyInt(), any(), any(), anyInt(), anyInt())).thenReturn(page);
+
+        for (BookingState state : BookingState.values()) {
+            assertEquals(page, bookingService.getAllBookingsByBookerId(1, state, 0, 10));
+            verify(bookingRepository).findBookerPage(eq(1), eq(state), any(), eq(0), eq(10));
+        }
+        verify(userRepository, never()).existsById(anyInt());
     }
 
     @Test
-    void getFutureBookings() {
-        CreateBookingDto dto = CreateBookingDto.builder()
-                .itemId(1)
-                .start(LocalDateTime.now())
-                .end(LocalDateTime.now().plusHours(1))
-                .build();
-
-        User owner = new User(1, "test2", "test2@test.com");
-        CreateItemDto itemDto = new CreateItemDto("TestItem", "DescriptionTest", true, null, null);
-        Item item = ItemMapper.toModel(itemDto, owner, null);
-        item.setId(1);
-        Booking booking = BookingMapper.toModel(dto, owner, item);
-
+    void getBookingsAfterCursor() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.now(), 10);
         when(userRepository.existsById(anyInt())).thenReturn(true);
-        when(bookingRepository.findByBookerIdAndStartAfter(anyInt(), any(), any())).thenReturn(Collections.singletonList(BookingMapper.toModel(dto, owner, item)));
+        when(bookingRepository.findBookerPageAfter(anyInt(), any(), any(), any(), anyInt()))
+                .thenReturn(Collections.emptyList());
+        when(bookingRepository.findOwnerPageAfter(anyInt(), any(), any(), any(), anyInt()))
+                .thenReturn(Collections.emptyList());
 
         assertEquals(
-                Collections.singletonList(booking),
-                bookingService.getAllBookingsByBookerId(owner.getId(), BookingState.FUTURE, 0, 10)
+                Collections.emptyList(),
+                bookingService.getAllBookingsByBookerIdAfter(1, BookingState.ALL, cursor.encode(), 10)
+        );
+        assertEquals(
+                Collections.emptyList(),
+                bookingService.getAllBookingByItemsByOwnerIdAfter(1, BookingState.WAITING, cursor.encode(), 10)
         );
     }
 
     @Test
-    void getCurrentBookings() {
-        CreateBookingDto dto = CreateBookingDto.builder()
-                .itemId(1)
-                .start(LocalDateTime.now())
-                .end(LocalDateTime.now().plusHours(1))
-                .build();
-
-        User owner = new User(1, "test2", "test2@test.com");
-        CreateItemDto itemDto = new CreateItemDto("TestItem", "DescriptionTest", true, null, null);
-        Item item = ItemMapper.toModel(itemDto, owner, null);
-        item.setId(1);
-        Booking booking = BookingMapper.toModel(dto, owner, item);
-
-        when(userRepository.existsById(anyInt())).thenReturn(true);
-        when(bookingRepository.findByBookerIdAndEndIsAfterAndStartIsBefore(anyInt(), any(), any(), any()))
-                .thenReturn(Collections.singletonList(BookingMapper.toModel(dto, owner, item)));
-
-        assertEquals(
-                Collections.singletonList(booking),
-                bookingService.getAllBookingsByBookerId(owner.getId(), BookingState.CURRENT, 0, 10)
-        );
+    void getBookingsAfterInvalidCursor() {
+        assertThrows(APIBadRequestException.class,
+                () -> bookingService.getAllBookingsByBookerIdAfter(1, BookingState.ALL, "???", 10));
     }
 
     @Test
@@ -354,53 +446,20 @@ public class BookingServiceTest {
 
     @Test
     void getAllBookingsByItems() {
-        CreateBookingDto dto = CreateBookingDto.builder()
-                .itemId(1)
-                .start(LocalDateTime.now())
-                .end(LocalDateTime.now().plusHours(1))
-                .build();
-
-        User owner = new User(1, "test2", "test2@test.com");
-        CreateItemDto itemDto = new CreateItemDto("TestItem", "DescriptionTest", true, null, null);
-        Item item = ItemMapper.toModel(itemDto, owner, null);
-        item.setId(1);
-        Booking booking = BookingMapper.toModel(dto, owner, item);
-
-        when(userRepository.existsById(anyInt())).thenReturn(true);
-        when(bookingRepository.bookingsForItem(anyInt(), any())).thenReturn(Collections.singletonList(BookingMapper.toModel(dto, owner, item)));
-        assertEquals(
-                Collections.singletonList(booking),
-                bookingService.getAllBookingByItemsByOwnerId(1, BookingState.ALL, 0, 10)
-        );
+        List<BookingView> page = Collections.singletonList(bookingView(LocalDateTime.now()));
+        when(bookingRepository.findOwnerPage(anyInt(), any(), any(), anyInt(), anyInt())).thenReturn(page);
+
+        for (BookingState state : BookingState.values()) {
+            assertEquals(page, bookingService.getAllBookingByItemsByOwnerId(1, state, 20, 10));
+            verify(bookingRepository).findOwnerPage(eq(1), eq(state), any(), eq(20), eq(10));
+        }
+        verify(userRepository, never()).existsById(anyInt());
     }
 
     @Test
-    void getPastBookingsByItems() {
-        CreateBookingDto dto = CreateBookingDto.builder()
-                .itemId(1)
-                .start(LocalDateTime.now())
-                .end(LocalDateTime.now().plusHours(1))
-                .build();
-
-        User owner = new User(1, "test2", "test2@test.com");
-        CreateItemDto itemDto = new CreateItemDto("TestItem", "DescriptionTest", true, null, null);
-        Item item = ItemMapper.toModel(itemDto, owner, null);
-        item.setId(1);
-        Booking booking = BookingMapper.toModel(dto, owner, item);
-        when(userRepository.existsById(anyInt())).thenReturn(true);
-        List<Booking> bookingList = Collections.singletonList(BookingMapper.toModel(dto, owner, item));
-        when(bookingRepository.bookingsForItemPast(anyInt(), any(), any())).thenReturn(bookingList);
-        when(bookingRepository.bookingsForItemFuture(anyInt(), any(), any())).thenReturn(bookingList);
-        when(bookingRepository.bookingsForItemCurrent(anyInt(), any(), any())).thenReturn(bookingList);
-        when(bookingRepository.bookingsByItemOwnerAndStatus(anyInt(), any(), any())).thenReturn(bookingList);
-
-
-        List<Booking> result = Collections.singletonList(booking);
-        assertEquals(result, bookingService.getAllBookingByItemsByOwnerId(1, BookingState.PAST, 0, 10));
-        assertEquals(result, bookingService.getAllBookingByItemsByOwnerId(1, BookingState.FUTURE, 0, 10));
-        assertEquals(result, bookingService.getAllBookingByItemsByOwnerId(1, BookingState.CURRENT, 0, 10));
-        assertEquals(result, bookingService.getAllBookingByItemsByOwnerId(1, BookingState.WAITING, 0, 10));
-        assertEquals(result, bookingService.getAllBookingByItemsByOwnerId(1, BookingState.REJECTED, 0, 10));
+    void getEmptyBookingsPageOfExistingUser() {
+        when(userRepository.existsById(1)).thenReturn(true);
+        assertTrue(bookingService.getAllBookingByItemsByOwnerId(1, BookingState.FUTURE, 0, 10).isEmpty());
     }
 
     @Test
@@ -415,4 +474,101 @@ public class BookingServiceTest {
         assertThrows(APINotFoundException.class,
                 () -> bookingService.getAllBookingByItemsByOwnerId(1, BookingState.REJECTED, 0, 10));
     }
-}
\ No newline at end of file
+
+    @Test
+    void cancelBookings() {
+        List<BookingParticipants> waiting = List.of(new BookingParticipants(1, 2, 3), new BookingParticipants(4, 2, 3));
+        when(bookingRepository.findParticipantsForUpdate(List.of(1, 4, 5), BookingStatus.WAITING)).thenReturn(waiting);
+
+        assertEquals(2, bookingService.cancelBookings(List.of(1, 4, 5)));
+        verify(bookingRepository).updateStatus(List.of(1, 4), BookingStatus.CANCELED);
+        verify(bookingSummaryTracker).statusChanged(waiting, BookingStatus.WAITING, BookingStatus.CANCELED);
+    }
+
+    @Test
+    void cancelBookingsWithoutWaiting() {
+        when(bookingRepository.findParticipantsForUpdate(List.of(1), BookingStatus.WAITING)).thenReturn(List.of());
+
+        assertEquals(0, bookingService.cancelBookings(List.of(1)));
+        verify(bookingRepository, never()).updateStatus(any(), any());
+    }
+
+    @Test
+    void decideBookings() {
+        int ownerId = 3;
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingSnapshot first = new BookingSnapshot(1, 10, 2, BookingStatus.WAITING, start, start.plusHours(2));
+        BookingSnapshot overlapping = new BookingSnapshot(2, 10, 4, BookingStatus.WAITING, start.plusHours(1), start.plusHours(3));
+        BookingSnapshot rejected = new BookingSnapshot(3, 10, 4, BookingStatus.WAITING, start.plusHours(1), start.plusHours(3));
+        BookingSnapshot approvedBefore = new BookingSnapshot(4, 11, 2, BookingStatus.APPROVED, start, start.plusHours(1));
+        BookingSnapshot clashesWithStored = new BookingSnapshot(5, 11, 2, BookingStatus.WAITING, start.plusHours(1), start.plusHours(2));
+        when(bookingRepository.findSnapshotsForUpdate(anyCollection(), eq(ownerId)))
+                .thenReturn(List.of(first, overlapping, rejected, approvedBefore, clashesWithStored));
+        when(bookingRepository.findIntervalsByItemIdInAndStatusInPeriod(anyCollection(), eq(BookingStatus.APPROVED), any(), any()))
+                .thenReturn(List.of(new BookingInterval(11, start, start.plusHours(3))));
+
+        List<BookingDecisionResultDto> results = bookingService.decideBookings(List.of(
+                new BookingDecisionDto(1, true),
+                new BookingDecisionDto(2, true),
+                new BookingDecisionDto(3, false),
+                new BookingDecisionDto(4, true),
+                new BookingDecisionDto(5, true),
+                new BookingDecisionDto(6, false),
+                new BookingDecisionDto(1, false)
+        ), ownerId);
+
+        assertEquals(List.of(true, false, true, false, false, false, false),
+                results.stream().map(BookingDecisionResultDto::getSuccess).collect(Collectors.toList()));
+        assertEquals(BookingStatus.APPROVED, results.get(0).getBooking().getStatus());
+        assertEquals(BookingStatus.REJECTED, results.get(2).getBooking().getStatus());
+        verify(bookingRepository).updateStatus(List.of(1), BookingStatus.APPROVED);
+        verify(bookingRepository).updateStatus(List.of(3), BookingStatus.REJECTED);
+        verify(bookingSummaryTracker).statusChanged(
+                List.of(new BookingParticipants(1, 2, ownerId)), BookingStatus.WAITING, BookingStatus.APPROVED);
+        verify(bookingSummaryTracker).statusChanged(
+                List.of(new BookingParticipants(3, 4, ownerId)), BookingStatus.WAITING, BookingStatus.REJECTED);
+    }
+
+    @Test
+    void decideBookingsWithoutIdsSkipsQueries() {
+        List<BookingDecisionResultDto> results = bookingService.decideBookings(
+                Arrays.asList(new BookingDecisionDto(null, true), null), 1);
+
+        assertEquals(List.of(false, false),
+                results.stream().map(BookingDecisionResultDto::getSuccess).collect(Collectors.toList()));
+        verifyNoInteractions(bookingRepository, itemLockManager);
+    }
+
+    @Test
+    void decideBookingsEmpty() {
+        assertThrows(APIBadRequestException.class, () -> bookingService.decideBookings(List.of(), 1));
+    }
+
+    @Test
+    void approveBookingOverlappingApproved() {
+        User owner = new User(1, "test2", "test2@test.com");
+        Item item = ItemMapper.toModel(new CreateItemDto("TestItem", "DescriptionTest", true, null, null), owner, null);
+        item.setId(1);
+        Booking booking = BookingMapper.toModel(CreateBookingDto.builder()
+                .itemId(1)
+                .start(LocalDateTime.now().plusHours(1))
+                .end(LocalDateTime.now().plusHours(2))
+                .build(), new User(2, "booker", "booker@test.com"), item);
+        booking.setId(5);
+        booking.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.findItemIdById(5)).thenReturn(Optional.of(1));
+        when(bookingRepository.findByIdForUpdate(5)).thenReturn(Optional.of(booking));
+        when(bookingRepository.existsByItem_IdAndStatusAndStartBeforeAndEndAfter(
+                1, BookingStatus.APPROVED, booking.getEnd(), booking.getStart())).thenReturn(true);
+
+        assertThrows(APIConflictException.class, () -> bookingService.approveBooking(5, true, owner.getId()));
+        verify(itemLockManager).lock(1);
+        assertEquals(BookingStatus.WAITING, booking.getStatus());
+    }
+
+    private BookingView bookingView(LocalDateTime start) {
+        return new BookingView(1, start, start.plusHours(1), BookingStatus.WAITING,
+                2, "TestItem", "DescriptionTest", true, 3, null, 4, "test2", "test2@test.com");
+    }
+
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statements",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingStatementCountTest {
+
+    private static final int BOOKINGS = 12;
+
+    private final MockMvc mvc;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", "owner@statements.com"));
+        booker = userRepository.save(new User(null, "booker", "booker@statements.com"));
+        LocalDateTime start = LocalDateTime.now().minusDays(BOOKINGS / 2);
+        for (int i = 0; i < BOOKINGS; i++) {
+            Item item = new Item();
+            item.setName("item" + i);
+            item.setDescription("description" + i);
+            item.setAvailable(true);
+            item.setOwner(owner);
+            item = itemRepository.save(item);
+            bookingRepository.save(new Booking(null, start.plusDays(i), start.plusDays(i).plusHours(1), item, booker,
+                    BookingStatus.APPROVED, null));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void bookerPageIsOneStatement() throws Exception {
+        assertStatements(1, "/bookings?from=5&size=5", booker, 5);
+        assertStatements(1, "/bookings?state=PAST&size=20", booker, BOOKINGS / 2);
+    }
+
+    @Test
+    void ownerPageIsOneStatement() throws Exception {
+        assertStatements(1, "/bookings/owner?size=5", owner, 5);
+        assertStatements(1, "/bookings/owner?state=FUTURE&size=3", owner, 3);
+    }
+
+    @Test
+    void cursorPageIsOneStatement() throws Exception {
+        MvcResult first = assertStatements(1, "/bookings/owner?size=4", owner, 4);
+        String cursor = first.getResponse().getHeader("X-Next-Cursor");
+        assertStatements(1, "/bookings/owner?size=4&cursor=" + cursor, owner, 4);
+    }
+
+    @Test
+    void emptyPageChecksUser() throws Exception {
+        assertStatements(2, "/bookings/owner", booker, 0);
+    }
+
+    private MvcResult assertStatements(long expected, String url, User user, int size) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        MvcResult result = mvc.perform(get(url)
+                        .header("X-Sharer-User-Id", user.getId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(size))
+                .andReturn();
+        assertEquals(expected, statistics.getPrepareStatementCount(), url);
+        entityManager.clear();
+        return result;
+    }
+
+}
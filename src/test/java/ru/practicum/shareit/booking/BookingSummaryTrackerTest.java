@@ -0,0 +1,103 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingCounterRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.BookingParticipants;
+import ru.practicum.shareit.booking.summary.BookingSummaryTracker;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@AutoConfigureTestDatabase
+@Import({BookingSummaryTracker.class, BookingCounterRepository.class, SimpleMeterRegistry.class})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingSummaryTrackerTest {
+
+    private final BookingSummaryTracker bookingSummaryTracker;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", "owner@test.com"));
+        booker = userRepository.save(new User(null, "booker", "booker@test.com"));
+        item = new Item();
+        item.setName("item");
+        item.setDescription("description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+    }
+
+    @Test
+    void summaryFollowsCreatedAndApprovedBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking past = save(now.minusDays(3), now.minusDays(2));
+        Booking current = save(now.minusDays(1), now.plusDays(1));
+        Booking future = save(now.plusDays(2), now.plusDays(3));
+        bookingSummaryTracker.created(List.of(past, current, future));
+
+        bookingSummaryTracker.statusChanged(List.of(BookingParticipants.of(future)), BookingStatus.WAITING, BookingStatus.REJECTED);
+        bookingSummaryTracker.statusChanged(List.of(BookingParticipants.of(current)), BookingStatus.WAITING, BookingStatus.APPROVED);
+
+        Map<BookingState, Long> bookerSummary = bookingSummaryTracker.getSummary(booker.getId(), BookingRole.BOOKER);
+        assertEquals(3, bookerSummary.get(BookingState.ALL));
+        assertEquals(1, bookerSummary.get(BookingState.PAST));
+        assertEquals(1, bookerSummary.get(BookingState.CURRENT));
+        assertEquals(1, bookerSummary.get(BookingState.FUTURE));
+        assertEquals(1, bookerSummary.get(BookingState.WAITING));
+        assertEquals(1, bookerSummary.get(BookingState.REJECTED));
+        assertEquals(bookerSummary, bookingSummaryTracker.getSummary(owner.getId(), BookingRole.OWNER));
+
+        Map<BookingState, Long> emptySummary = bookingSummaryTracker.getSummary(owner.getId(), BookingRole.BOOKER);
+        assertEquals(0, emptySummary.get(BookingState.ALL));
+        assertEquals(0, emptySummary.get(BookingState.FUTURE));
+    }
+
+    @Test
+    void refreshRebuildsCountersFromBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        save(now.plusDays(1), now.plusDays(2));
+        Booking approved = save(now.plusDays(3), now.plusDays(4));
+        approved.setStatus(BookingStatus.APPROVED);
+        bookingRepository.flush();
+
+        bookingSummaryTracker.refresh(Set.of(owner.getId(), booker.getId()));
+
+        Map<BookingState, Long> summary = bookingSummaryTracker.getSummary(owner.getId(), BookingRole.OWNER);
+        assertEquals(2, summary.get(BookingState.ALL));
+        assertEquals(1, summary.get(BookingState.WAITING));
+        assertEquals(2, summary.get(BookingState.FUTURE));
+    }
+
+    private Booking save(LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.save(new Booking(null, start, end, item, booker, BookingStatus.WAITING, null));
+    }
+
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.summary.BookingPeriod;
+import ru.practicum.shareit.booking.summary.BookingTimeline;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BookingTimelineTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Test
+    void countsPastCurrentAndFuture() {
+        BookingTimeline timeline = BookingTimeline.of(List.of(
+                new BookingPeriod(1, now.minusDays(3), now.minusDays(2)),
+                new BookingPeriod(2, now.minusDays(1), now.plusDays(1)),
+                new BookingPeriod(3, now.plusDays(2), now.plusDays(3)),
+                new BookingPeriod(4, now.minusHours(1), now.minusMinutes(1)),
+                new BookingPeriod(5, now.plusHours(1), now.plusHours(2))
+        ));
+
+        assertEquals(5, timeline.size());
+        assertEquals(2, timeline.countPast(now));
+        assertEquals(1, timeline.countCurrent(now));
+        assertEquals(2, timeline.countFuture(now));
+    }
+
+    @Test
+    void boundaryBookingsAreNeitherCurrentNorPastOrFuture() {
+        BookingTimeline timeline = BookingTimeline.of(List.of(
+                new BookingPeriod(1, now, now.plusHours(1)),
+                new BookingPeriod(2, now.minusHours(1), now)
+        ));
+
+        assertEquals(0, timeline.countPast(now));
+        assertEquals(0, timeline.countCurrent(now));
+        assertEquals(0, timeline.countFuture(now));
+    }
+
+    @Test
+    void emptyTimelineCountsNothing() {
+        BookingTimeline timeline = BookingTimeline.of(List.of());
+
+        assertEquals(0, timeline.size());
+        assertEquals(0, timeline.countPast(now));
+        assertEquals(0, timeline.countCurrent(now));
+        assertEquals(0, timeline.countFuture(now));
+    }
+
+}
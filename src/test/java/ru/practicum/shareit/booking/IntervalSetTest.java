@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.availability.IntervalSet;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntervalSetTest {
+
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void overlapsDetectsPartialAndEnclosingIntervals() {
+        IntervalSet intervals = new IntervalSet();
+        intervals.add(base.plusHours(2), base.plusHours(4));
+
+        assertTrue(intervals.overlaps(base.plusHours(1), base.plusHours(3)));
+        assertTrue(intervals.overlaps(base.plusHours(3), base.plusHours(5)));
+        assertTrue(intervals.overlaps(base.plusHours(1), base.plusHours(5)));
+        assertTrue(intervals.overlaps(base.plusHours(2).plusMinutes(30), base.plusHours(3)));
+    }
+
+    @Test
+    void overlapsIgnoresAdjacentIntervals() {
+        IntervalSet intervals = new IntervalSet();
+        intervals.add(base.plusHours(2), base.plusHours(4));
+
+        assertFalse(intervals.overlaps(base, base.plusHours(2)));
+        assertFalse(intervals.overlaps(base.plusHours(4), base.plusHours(6)));
+        assertFalse(new IntervalSet().overlaps(base, base.plusHours(1)));
+    }
+
+    @Test
+    void addMergesOverlappingIntervals() {
+        IntervalSet intervals = new IntervalSet();
+        intervals.add(base, base.plusHours(1));
+        intervals.add(base.plusHours(3), base.plusHours(4));
+        intervals.add(base.plusHours(6), base.plusHours(7));
+        assertEquals(3, intervals.size());
+
+        intervals.add(base.plusMinutes(30), base.plusHours(3));
+        assertEquals(2, intervals.size());
+        assertTrue(intervals.overlaps(base.plusHours(2), base.plusHours(2).plusMinutes(1)));
+        assertFalse(intervals.overlaps(base.plusHours(4), base.plusHours(6)));
+    }
+
+}
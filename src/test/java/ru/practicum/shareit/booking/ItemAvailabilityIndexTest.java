@@ -0,0 +1,62 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.availability.BookingInterval;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemAvailabilityIndexTest {
+
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Test
+    void loadsItemOnceAndFollowsApprovals() {
+        ItemAvailabilityIndex index = new ItemAvailabilityIndex(bookingRepository, 100, new SimpleMeterRegistry());
+        when(bookingRepository.findIntervalsByItemIdAndStatus(1, BookingStatus.APPROVED))
+                .thenReturn(List.of(new BookingInterval(1, base, base.plusHours(2))));
+
+        assertTrue(index.isBooked(1, base.plusHours(1), base.plusHours(3)));
+        assertFalse(index.isBooked(1, base.plusHours(2), base.plusHours(3)));
+        index.addApproved(1, base.plusHours(2), base.plusHours(3));
+        assertTrue(index.isBooked(1, base.plusHours(2), base.plusHours(3)));
+
+        verify(bookingRepository, times(1)).findIntervalsByItemIdAndStatus(1, BookingStatus.APPROVED);
+    }
+
+    @Test
+    void doesNotCacheLoadOverlappingApproval() {
+        ItemAvailabilityIndex index = new ItemAvailabilityIndex(bookingRepository, 100, new SimpleMeterRegistry());
+        // подтверждение коммитится, пока интервалы предмета читаются из базы
+        when(bookingRepository.findIntervalsByItemIdAndStatus(1, BookingStatus.APPROVED))
+                .thenAnswer(invocation -> {
+                    index.addApproved(1, base, base.plusHours(1));
+                    return List.of();
+                })
+                .thenReturn(List.of(new BookingInterval(1, base, base.plusHours(1))));
+
+        assertFalse(index.isBooked(1, base, base.plusHours(1)));
+        assertTrue(index.isBooked(1, base, base.plusHours(1)));
+        assertTrue(index.isBooked(1, base, base.plusHours(1)));
+
+        verify(bookingRepository, times(2)).findIntervalsByItemIdAndStatus(1, BookingStatus.APPROVED);
+    }
+
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.expiry.TimingWheel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimingWheelTest {
+
+    @Test
+    void addRejectsPastExpiration() {
+        TimingWheel wheel = new TimingWheel(10, 8, 1_000);
+
+        assertFalse(wheel.add(1, 999));
+        assertTrue(wheel.add(2, 1_000));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void advanceNeverFiresBeforeExpiration() {
+        TimingWheel wheel = new TimingWheel(10, 8, 0);
+        wheel.add(1, 25);
+        wheel.add(2, 29);
+        wheel.add(3, 31);
+
+        assertEquals(List.of(), wheel.advance(29));
+        assertEquals(List.of(1, 2), wheel.advance(30));
+        assertEquals(List.of(3), wheel.advance(40));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void overflowLevelsCascadeDown() {
+        TimingWheel wheel = new TimingWheel(10, 4, 0);
+        long[] expirations = {5, 45, 170, 655, 2_000, 2_009};
+        for (int i = 0; i < expirations.length; i++) {
+            wheel.add(i, expirations[i]);
+        }
+
+        List<Integer> fired = new ArrayList<>();
+        for (long now = 0; now <= 2_100; now += 10) {
+            for (Integer id : wheel.advance(now)) {
+                long expiration = expirations[id];
+                assertTrue(expiration < now && now - expiration <= 10, "id " + id + " fired at " + now);
+                fired.add(id);
+            }
+        }
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advanceCatchesUpAfterLongPause() {
+        TimingWheel wheel = new TimingWheel(10, 4, 0);
+        wheel.add(1, 100);
+        wheel.add(2, 1_000);
+        wheel.add(3, 5_000);
+
+        assertEquals(List.of(1, 2), wheel.advance(3_000));
+        assertEquals(List.of(3), wheel.advance(5_010));
+    }
+
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking.completion;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CompletedBookingIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void answersFromMemoryAndPromotesEndedBookings() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        when(bookingRepository.streamCompletionsByStatus(BookingStatus.APPROVED)).thenReturn(Stream.of(
+                new BookingCompletion(1, 2, now.minusDays(1)),
+                new BookingCompletion(1, 3, now.plusNanos(300_000_000))
+        ));
+        CompletedBookingIndex index = new CompletedBookingIndex(bookingRepository, transactionManager);
+        index.load();
+
+        assertTrue(index.hasCompleted(1, 2));
+        assertFalse(index.hasCompleted(2, 1));
+        assertFalse(index.hasCompleted(1, 3));
+
+        index.addApproved(5, 6, now.minusHours(1));
+        index.addApproved(5, 7, now.plusYears(1));
+        assertTrue(index.hasCompleted(5, 6));
+        assertFalse(index.hasCompleted(5, 7));
+
+        Thread.sleep(400);
+        assertTrue(index.hasCompleted(1, 3));
+        assertFalse(index.hasCompleted(5, 7));
+        verify(bookingRepository, times(1)).streamCompletionsByStatus(BookingStatus.APPROVED);
+    }
+
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.completion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongHashSetTest {
+
+    @Test
+    void matchesHashSetThroughGrowth() {
+        LongHashSet set = new LongHashSet(4);
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            long value = ((long) random.nextInt(500) << 32) | random.nextInt(500);
+            assertEquals(expected.add(value), set.add(value));
+        }
+        assertEquals(expected.size(), set.size());
+        for (int i = 0; i < 20_000; i++) {
+            long value = ((long) random.nextInt(600) << 32) | random.nextInt(600);
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+    }
+
+    @Test
+    void storesZero() {
+        LongHashSet set = new LongHashSet(8);
+        assertFalse(set.contains(0L));
+        assertTrue(set.add(0L));
+        assertFalse(set.add(0L));
+        assertTrue(set.contains(0L));
+        assertEquals(1, set.size());
+    }
+
+}
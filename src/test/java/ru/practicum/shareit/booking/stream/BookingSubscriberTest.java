@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking.stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingSubscriberTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void slowConsumerOverflowsBoundedBuffer() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(3);
+        List<SseEmitter.SseEventBuilder> sent = new CopyOnWriteArrayList<>();
+        SseEmitter emitter = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                sending.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                sent.add(builder);
+                delivered.countDown();
+            }
+        };
+        BookingSubscriber subscriber = new BookingSubscriber(1, emitter, 2, executor);
+
+        assertTrue(subscriber.offer(event(1)));
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+        assertTrue(subscriber.offer(event(2)));
+        assertTrue(subscriber.offer(event(3)));
+        assertFalse(subscriber.offer(event(4)));
+
+        release.countDown();
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(3, sent.size());
+        assertTrue(subscriber.offer(event(5)));
+    }
+
+    @Test
+    void closedSubscriberDropsEvents() {
+        BookingSubscriber subscriber = new BookingSubscriber(1, new SseEmitter(), 1, executor);
+        subscriber.close();
+        assertTrue(subscriber.offer(event(1)));
+        assertTrue(subscriber.offer(event(2)));
+    }
+
+    private BookingEvent event(int id) {
+        return BookingEvent.statusChanged(1, ShortBookingDto.builder().id(id).status(BookingStatus.CANCELED).build());
+    }
+
+}
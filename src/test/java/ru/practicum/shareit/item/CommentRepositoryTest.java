@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentCursor;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class CommentRepositoryTest {
+
+    private final CommentRepository commentRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final TestEntityManager entityManager;
+
+    private Item item;
+    private User author;
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    @BeforeEach
+    void beforeEach() {
+        User owner = userRepository.save(new User(null, "owner", "owner@mail.com"));
+        author = userRepository.save(new User(null, "author", "author@mail.com"));
+        item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Дрель");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+        for (int i = 0; i < 5; i++) {
+            Comment comment = new Comment();
+            comment.setItem(item);
+            comment.setAuthor(author);
+            comment.setText("comment " + i);
+            // два комментария с одинаковым временем, порядок между ними задаёт id
+            comment.setCreated(now.plusMinutes(Math.min(i, 3)));
+            commentRepository.save(comment);
+            itemRepository.incrementCommentCount(item.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pagesNewestFirstWithAuthorNames() {
+        List<CommentDto> first = commentRepository.findPageByItemId(item.getId(), PageRequest.of(0, 2));
+        assertEquals(List.of("comment 4", "comment 3"), texts(first));
+        assertEquals("author", first.get(0).getAuthorName());
+        assertEquals(author.getId(), first.get(0).getAuthorId());
+
+        CommentCursor cursor = CommentCursor.of(first.get(1));
+        List<CommentDto> second = commentRepository.findPageByItemIdAfter(
+                item.getId(), cursor.getCreated(), cursor.getId(), PageRequest.of(0, 2));
+        assertEquals(List.of("comment 2", "comment 1"), texts(second));
+
+        cursor = CommentCursor.decode(CommentCursor.of(second.get(1)).encode());
+        List<CommentDto> last = commentRepository.findPageByItemIdAfter(
+                item.getId(), cursor.getCreated(), cursor.getId(), PageRequest.of(0, 2));
+        assertEquals(List.of("comment 0"), texts(last));
+    }
+
+    @Test
+    void keepsCommentCount() {
+        assertEquals(5, itemRepository.findById(item.getId()).orElseThrow().getCommentCount());
+
+        entityManager.getEntityManager().createQuery("delete from Comment c where c.text = 'comment 0'").executeUpdate();
+        itemRepository.recountComments(List.of(item.getId()));
+        entityManager.clear();
+        assertEquals(4, itemRepository.findById(item.getId()).orElseThrow().getCommentCount());
+    }
+
+    private static List<String> texts(List<CommentDto> comments) {
+        return comments.stream().map(CommentDto::getText).collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemBatchRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@DataJpaTest
+@AutoConfigureTestDatabase
+@Import(ItemBatchRepository.class)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemBatchRepositoryTest {
+
+    private final ItemBatchRepository itemBatchRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    @Test
+    void insertAllSharesSequenceWithJpa() {
+        User owner = userRepository.save(new User(null, "owner", "owner@test.com"));
+        Item saved = itemRepository.save(item(owner, "saved"));
+        List<Item> imported = IntStream.range(0, 120)
+                .mapToObj(i -> item(owner, "imported " + i))
+                .collect(Collectors.toList());
+
+        itemBatchRepository.insertAll(imported);
+        Item savedAfter = itemRepository.save(item(owner, "saved after"));
+        itemRepository.flush();
+
+        Set<Integer> ids = imported.stream().map(Item::getId).collect(Collectors.toSet());
+        ids.add(saved.getId());
+        ids.add(savedAfter.getId());
+        assertEquals(122, ids.size());
+        assertEquals(ids, new HashSet<>(itemRepository.findIdsByOwnerId(owner.getId())));
+        Item loaded = itemRepository.findById(imported.get(0).getId()).orElse(null);
+        assertNotNull(loaded);
+        assertEquals("imported 0", loaded.getName());
+        assertEquals(0, loaded.getCommentCount());
+    }
+
+    private static Item item(User owner, String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription("description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        return item;
+    }
+
+}
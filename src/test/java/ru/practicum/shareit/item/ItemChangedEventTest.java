@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.SearchOrder;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.CreateUserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// без транзакции теста: индексы и кэши обновляются только после настоящего коммита
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:item-events")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemChangedEventTest {
+
+    private final ItemService itemService;
+    private final UserService userService;
+
+    @Test
+    void indexesFollowCommittedItemChanges() {
+        User owner = userService.createUser(new CreateUserDto("owner", "owner@events.com"));
+        Item item = itemService.createItem(new CreateItemDto("Стремянка", "Алюминиевая", true, owner.getId(), null));
+        assertEquals(List.of(item.getId()), ids(itemService.search("стремянка", SearchOrder.ID, 0, 10)));
+        assertEquals(List.of("Стремянка"), itemService.suggest("стрем", 10));
+
+        itemService.editItem(ItemDto.builder().id(item.getId()).ownerId(owner.getId()).name("Лестница").build());
+        assertTrue(itemService.search("стремянка", SearchOrder.ID, 0, 10).isEmpty());
+        assertEquals(List.of("Лестница"), itemService.suggest("лест", 10));
+
+        userService.deleteUserById(owner.getId());
+        assertTrue(itemService.search("лестница", SearchOrder.ID, 0, 10).isEmpty());
+        assertTrue(itemService.suggest("лест", 10).isEmpty());
+    }
+
+    private static List<Integer> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+
+}
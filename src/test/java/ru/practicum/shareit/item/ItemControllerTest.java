@@ -8,11 +8,18 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemBookingCommentDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+import ru.practicum.shareit.item.dto.RejectedLineDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
+import ru.practicum.shareit.item.imports.ItemImportFormat;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentCursor;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
@@ -25,6 +32,7 @@ import java.util.List;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
@@ -142,8 +150,8 @@ public class ItemControllerTest {
         final CreateItemDto itemDto = new CreateItemDto("test", "testtest", true, 0, null);
         Item model = ItemMapper.toModel(itemDto, null, null);
         model.setId(1);
-        when(itemService.search(anyString(), anyInt(), anyInt()))
-                .thenReturn(List.of(model));
+        when(itemService.search(anyString(), any(), anyInt(), anyInt()))
+                .thenReturn(List.of(ItemMapper.toItemDto(model)));
 
         mvc.perform(get("/items/search")
                         .header("X-Sharer-User-Id", "1")
@@ -160,6 +168,69 @@ public class ItemControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$[0].available").value(itemDto.getAvailable()));
     }
 
+    @Test
+    void importItemsCsv() throws Exception {
+        ItemImportReportDto report = ItemImportReportDto.builder()
+                .lines(2)
+                .imported(1)
+                .rejected(1)
+                .rejectedLines(List.of(new RejectedLineDto(3, "Некорректные поля: name")))
+                .build();
+        when(itemService.importItems(eq(1), eq(ItemImportFormat.CSV), any()))
+                .thenReturn(report);
+
+        mvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", "1")
+                        .content("name,description,available\nДрель,Ударная,true\n,Пустая,true\n".getBytes(StandardCharsets.UTF_8))
+                        .contentType("text/csv;charset=UTF-8")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rejectedLines[0].line").value(3));
+    }
+
+    @Test
+    void importItemsUnsupportedFormat() throws Exception {
+        mvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", "1")
+                        .content("{}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.error").exists());
+    }
+
+    @Test
+    void suggestItemNames() throws Exception {
+        when(itemService.suggest("дре", 5))
+                .thenReturn(List.of("Дрель", "Дрель ударная"));
+
+        mvc.perform(get("/items/suggest")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("prefix", "дре")
+                        .param("size", "5")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0]").value("Дрель"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1]").value("Дрель ударная"));
+    }
+
+    @Test
+    void getCommentsPage() throws Exception {
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 12, 0);
+        CommentDto comment = new CommentDto(7, "Хорошая дрель", 1, 2, "author", created);
+        when(itemService.getComments(1, null, 1))
+                .thenReturn(List.of(comment));
+
+        mvc.perform(get("/items/1/comments")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", new CommentCursor(created, 7).encode()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].authorName").value("author"));
+    }
+
     @Test
     void addComment() throws Exception {
         final Comment comment = new Comment();
@@ -184,4 +255,30 @@ public class ItemControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.text").value(comment.getText()))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.authorId").value(comment.getAuthor().getId()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(1);
+        ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(1)
+                .from(from)
+                .to(to)
+                .busy(List.of(new TimeSlotDto(from, from.plusHours(2))))
+                .free(List.of(new TimeSlotDto(from.plusHours(2), to)))
+                .build();
+        when(itemService.getAvailability(anyInt(), any(), any()))
+                .thenReturn(availability);
+
+        mvc.perform(get("/items/1/availability")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.itemId").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.busy.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.free.length()").value(1));
+    }
+
+}
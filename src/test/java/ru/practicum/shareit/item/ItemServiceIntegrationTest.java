@@ -13,10 +13,13 @@ import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import ru.practicum.shareit.exception.APINotFoundException;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.cache.RequestFeedCache;
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
+import ru.practicum.shareit.request.matching.RequestMatcher;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.repository.RequestSuggestionRepository;
 import ru.practicum.shareit.request.service.impl.ItemRequestServiceImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -41,12 +44,22 @@ public class ItemServiceIntegrationTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private RequestFeedCache requestFeedCache;
+
+    @Mock
+    private RequestMatcher requestMatcher;
+
+    @Mock
+    private RequestSuggestionRepository requestSuggestionRepository;
+
     @InjectMocks
     private ItemRequestServiceImpl itemRequestService;
 
     @BeforeEach
     public void setup() {
-        itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, userRepository);
+        itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, userRepository, itemRepository,
+                requestFeedCache, requestMatcher, requestSuggestionRepository);
     }
 
     @Test
@@ -96,7 +109,8 @@ public class ItemServiceIntegrationTest {
 
         Assertions.assertThrows(APINotFoundException.class, () -> itemRequestService.getRequests(userId));
         Mockito.verify(itemRepository, Mockito.never()).findAllByOwnerId(anyInt(), any());
-        Mockito.verify(itemRequestRepository, Mockito.never())
+        // пользователь проверяется только после пустой страницы
+        Mockito.verify(itemRequestRepository, Mockito.times(1))
                 .findAllByRequesterId(anyInt(), any(Sort.class));
     }
 
@@ -1,39 +1,62 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.shareit.booking.availability.BookingInterval;
+import ru.practicum.shareit.booking.completion.CompletedBookingIndex;
+import ru.practicum.shareit.booking.model.AdjacentBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.BookingSummaryTracker;
 import ru.practicum.shareit.exception.APIAccessDeniedException;
 import ru.practicum.shareit.exception.APIBadRequestException;
 import ru.practicum.shareit.exception.APINotFoundException;
+import ru.practicum.shareit.item.cache.ItemDetailCache;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.imports.ItemImporter;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.SearchEngine;
+import ru.practicum.shareit.item.search.SearchOrder;
 import ru.practicum.shareit.item.service.impl.ItemServiceImpl;
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.matching.RequestDocument;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,6 +71,18 @@ public class ItemServiceTest {
     private CommentRepository commentRepository;
     @Mock
     private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private BookingSummaryTracker bookingSummaryTracker;
+    @Mock
+    private CompletedBookingIndex completedBookingIndex;
+    @Mock
+    private SearchEngine searchEngine;
+    @Mock
+    private ItemNameSuggester itemNameSuggester;
+    @Mock
+    private ItemImporter itemImporter;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private ItemServiceImpl itemService;
@@ -59,7 +94,15 @@ public class ItemServiceTest {
                 commentRepository,
                 userRepository,
                 bookingRepository,
-                itemRequestRepository
+                itemRequestRepository,
+                bookingSummaryTracker,
+                completedBookingIndex,
+                searchEngine,
+                itemNameSuggester,
+                new ItemSearchCache(100, new SimpleMeterRegistry()),
+                new ItemDetailCache(100, Duration.ofMinutes(10), Duration.ofSeconds(10), new SimpleMeterRegistry()),
+                itemImporter,
+                eventPublisher
         );
     }
 
@@ -97,6 +140,11 @@ public class ItemServiceTest {
         when(itemRepository.save(any()))
                 .thenReturn(item);
         assertEquals(createItemDto.getName(), itemService.createItem(createItemDto).getName());
+        ArgumentCaptor<ItemChangedEvent> event = ArgumentCaptor.forClass(ItemChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(List.of(item), event.getValue().getCreated());
+        assertEquals(Set.of(requestId), event.getValue().getAnsweredRequestIds());
+        assertTrue(event.getValue().isRequestItemsChanged());
     }
 
     @Test
@@ -112,6 +160,27 @@ public class ItemServiceTest {
         assertThrows(APIAccessDeniedException.class, () -> itemService.deleteItemById(itemId, 4));
     }
 
+    @Test
+    void deleteLastItemReopensRequest() {
+        int itemId = 1;
+        int userId = 1;
+        User user = new User(userId, "test", "test@test.com");
+        ItemRequest request = new ItemRequest();
+        request.setId(3);
+        request.setDescription("test");
+        request.setRequester(new User(2, "requester", "requester@test.com"));
+        Item item = ItemMapper.toModel(new CreateItemDto("TestItem", "DescriptionTest", true, userId, 3), user, request);
+        item.setId(itemId);
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+
+        itemService.deleteItemById(itemId, userId);
+
+        ArgumentCaptor<ItemChangedEvent> event = ArgumentCaptor.forClass(ItemChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(Set.of(itemId), event.getValue().getRemovedIds());
+        assertEquals(List.of(new RequestDocument(3, 2, "test")), event.getValue().getReopenedRequests());
+    }
+
     @Test
     void addItemNoUser() {
         CreateItemDto createItemDto = new CreateItemDto("TestItem", "DescriptionTest", true, null, null);
@@ -195,12 +264,10 @@ public class ItemServiceTest {
         ItemBookingCommentDto getItemDto = ItemMapper.toItemBookingCommentDto(item, null, null, Collections.emptyList());
 
         when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
-        when(commentRepository.findAllByItem_Id(anyInt()))
+        when(commentRepository.findPageByItemId(anyInt(), any()))
+                .thenReturn(Collections.emptyList());
+        when(bookingRepository.findAdjacentBookings(any(), any()))
                 .thenReturn(Collections.emptyList());
-        when(bookingRepository.findFirstByItem_IdAndStartBefore(anyInt(), any(), any()))
-                .thenReturn(Optional.empty());
-        when(bookingRepository.findFirstByItem_IdAndStartAfterAndStatusNot(anyInt(), any(), any(), any()))
-                .thenReturn(Optional.empty());
         assertEquals(getItemDto, itemService.getItemBookingById(itemId, ownerId));
     }
 
@@ -214,12 +281,10 @@ public class ItemServiceTest {
         ItemBookingCommentDto getItemDto = ItemMapper.toItemBookingCommentDto(item, null, null, Collections.emptyList());
 
         when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
-        when(commentRepository.findAllByItem_Id(anyInt()))
+        when(commentRepository.findPageByItemId(anyInt(), any()))
+                .thenReturn(Collections.emptyList());
+        when(bookingRepository.findAdjacentBookings(any(), any()))
                 .thenReturn(Collections.emptyList());
-        when(bookingRepository.findFirstByItem_IdAndStartBefore(anyInt(), any(), any()))
-                .thenReturn(Optional.empty());
-        when(bookingRepository.findFirstByItem_IdAndStartAfterAndStatusNot(anyInt(), any(), any(), any()))
-                .thenReturn(Optional.empty());
 
         assertEquals(getItemDto, itemService.getItemBookingById(itemId, ownerId));
     }
@@ -240,29 +305,116 @@ public class ItemServiceTest {
         ItemBookingDto getItemDto = ItemMapper.toItemBookingDto(item, null, null);
 
         when(itemRepository.findAllByOwnerId(anyInt(), any())).thenReturn(List.of(item));
-        when(bookingRepository.findAllByItemInAndStartBefore(any(), any(), any()))
-                .thenReturn(Collections.emptyList());
-        when(bookingRepository.findAllByItemInAndStartAfterAndStatusNot(any(), any(), any(), any()))
+        when(bookingRepository.findAdjacentBookings(any(), any()))
                 .thenReturn(Collections.emptyList());
 
         assertEquals(List.of(getItemDto), itemService.getAllByOwnerId(ownerId, 0, 10));
     }
 
+    @Test
+    void getAllItemsByOwnerWithAdjacentBookings() {
+        User user = new User(1, "test", "test@test.com");
+        Item first = ItemMapper.toModel(new CreateItemDto("First", "DescriptionTest", true, null, null), user, null);
+        first.setId(10);
+        Item second = ItemMapper.toModel(new CreateItemDto("Second", "DescriptionTest", true, null, null), user, null);
+        second.setId(11);
+        LocalDateTime now = LocalDateTime.now();
+
+        when(itemRepository.findAllByOwnerId(anyInt(), any())).thenReturn(List.of(first, second));
+        when(bookingRepository.findAdjacentBookings(eq(List.of(10, 11)), any())).thenReturn(List.of(
+                new AdjacentBooking(true, new BookingSnapshot(1, 10, 2, BookingStatus.APPROVED, now.minusDays(2), now.minusDays(1))),
+                new AdjacentBooking(false, new BookingSnapshot(2, 10, 3, BookingStatus.WAITING, now.plusDays(1), now.plusDays(2))),
+                new AdjacentBooking(false, new BookingSnapshot(3, 11, 2, BookingStatus.APPROVED, now.plusDays(3), now.plusDays(4)))
+        ));
+
+        List<ItemBookingDto> result = new ArrayList<>(itemService.getAllByOwnerId(1, 0, 10));
+        assertEquals(1, result.get(0).getLastBooking().getId());
+        assertEquals(2, result.get(0).getLastBooking().getBookerId());
+        assertEquals(2, result.get(0).getNextBooking().getId());
+        assertEquals(BookingStatus.WAITING, result.get(0).getNextBooking().getStatus());
+        assertNull(result.get(1).getLastBooking());
+        assertEquals(3, result.get(1).getNextBooking().getId());
+    }
+
+    @Test
+    void getAvailabilityMergesBusyIntervals() {
+        int itemId = 1;
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(1);
+        when(itemRepository.existsById(itemId)).thenReturn(true);
+        when(bookingRepository.streamIntervalsByItemIdInPeriod(anyInt(), any(), any(), any()))
+                .thenReturn(Stream.of(
+                        new BookingInterval(itemId, from.minusHours(2), from.plusHours(1)),
+                        new BookingInterval(itemId, from.plusHours(4), from.plusHours(6)),
+                        new BookingInterval(itemId, from.plusHours(5), from.plusHours(8)),
+                        new BookingInterval(itemId, from.plusHours(8), from.plusHours(9)),
+                        new BookingInterval(itemId, from.plusHours(20), to.plusHours(1))
+                ));
+
+        ItemAvailabilityDto availability = itemService.getAvailability(itemId, from, to);
+
+        assertEquals(List.of(
+                new TimeSlotDto(from, from.plusHours(1)),
+                new TimeSlotDto(from.plusHours(4), from.plusHours(9)),
+                new TimeSlotDto(from.plusHours(20), to)
+        ), availability.getBusy());
+        assertEquals(List.of(
+                new TimeSlotDto(from.plusHours(1), from.plusHours(4)),
+                new TimeSlotDto(from.plusHours(9), from.plusHours(20))
+        ), availability.getFree());
+    }
+
+    @Test
+    void getAvailabilityWithoutBookings() {
+        int itemId = 1;
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(1);
+        when(itemRepository.existsById(itemId)).thenReturn(true);
+        when(bookingRepository.streamIntervalsByItemIdInPeriod(anyInt(), any(), any(), any()))
+                .thenReturn(Stream.empty());
+
+        ItemAvailabilityDto availability = itemService.getAvailability(itemId, from, to);
+
+        assertEquals(Collections.emptyList(), availability.getBusy());
+        assertEquals(List.of(new TimeSlotDto(from, to)), availability.getFree());
+    }
+
+    @Test
+    void getAvailabilityInvalidPeriod() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        assertThrows(APIBadRequestException.class, () -> itemService.getAvailability(1, from, from));
+    }
+
     @Test
     void searchItem() {
         int ownerId = 1;
         User user = new User(ownerId, "test", "test@test.com");
         CreateItemDto itemDto = new CreateItemDto("TestItem", "DescriptionTest", true, null, null);
         Item item = ItemMapper.toModel(itemDto, user, null);
+        item.setId(2);
+        Item other = ItemMapper.toModel(itemDto, user, null);
+        other.setId(5);
 
-        when(itemRepository.findAllByNameOrDescription(anyString(), any())).thenReturn(List.of(item));
+        when(searchEngine.search("test", SearchOrder.RELEVANCE, 0, 2)).thenReturn(List.of(2, 5));
+        when(itemRepository.findDtosByIdIn(List.of(2, 5)))
+                .thenReturn(List.of(ItemMapper.toItemDto(other), ItemMapper.toItemDto(item)));
+
+        assertEquals(List.of(2, 5), itemService.search("test", SearchOrder.RELEVANCE, 0, 2).stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void searchItemPageOutOfRange() {
+        when(searchEngine.search("test", SearchOrder.ID, 5, 2)).thenReturn(List.of());
 
-        assertEquals(List.of(item), itemService.search("test", 0, 10));
+        assertEquals(Collections.emptyList(), itemService.search("test", SearchOrder.ID, 5, 2));
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
     void searchItemEmptyText() {
-        assertEquals(Collections.emptyList(), itemService.search("", 0, 10));
+        assertEquals(Collections.emptyList(), itemService.search("", SearchOrder.ID, 0, 10));
     }
 
     @Test
@@ -279,9 +431,9 @@ public class ItemServiceTest {
         comment.setCreated(LocalDateTime.now());
         comment.setText("test");
         comment.setAuthor(new User(ownerId, "test", "test@test.com"));
-        Booking booking = new Booking(1, LocalDateTime.MIN, LocalDateTime.MIN.plusHours(1), item, new User(ownerId, "test", "test@test.com"), BookingStatus.APPROVED);
-        when(bookingRepository.findFirstByItem_IdAndBooker_IdAndEndBefore(anyInt(), anyInt(), any()))
-                .thenReturn(Optional.of(booking));
+        when(completedBookingIndex.hasCompleted(itemId, 1)).thenReturn(true);
+        when(userRepository.findById(1)).thenReturn(Optional.of(new User(1, "test", "test@test.com")));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
         when(commentRepository.save(any()))
                 .thenReturn(comment);
 
@@ -302,9 +454,9 @@ public class ItemServiceTest {
         comment.setCreated(LocalDateTime.now());
         comment.setText("test");
         comment.setAuthor(new User(ownerId, "test", "test@test.com"));
-        when(bookingRepository.findFirstByItem_IdAndBooker_IdAndEndBefore(anyInt(), anyInt(), any()))
-                .thenReturn(Optional.empty());
+        when(completedBookingIndex.hasCompleted(itemId, 1)).thenReturn(false);
 
         assertThrows(APIBadRequestException.class, () -> itemService.addComment(CommentMapper.toDto(comment), itemId, 1));
+        verifyNoInteractions(bookingRepository, userRepository, itemRepository, commentRepository);
     }
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.item.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.item.dto.ItemBookingCommentDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ItemDetailCacheTest {
+
+    @Test
+    void keepsViewUntilInvalidated() {
+        ItemDetailCache cache = new ItemDetailCache(100, Duration.ofMinutes(10), Duration.ofMinutes(1), new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<ItemBookingCommentDto> loader = () -> {
+            loads.incrementAndGet();
+            return ItemBookingCommentDto.builder().id(1).build();
+        };
+
+        ItemBookingCommentDto view = cache.getView(1, loader);
+        assertSame(view, cache.getView(1, loader));
+        cache.getOwnerView(1, loader);
+        assertEquals(2, loads.get());
+
+        cache.invalidate(List.of(2));
+        cache.getView(1, loader);
+        assertEquals(2, loads.get());
+
+        cache.invalidate(1);
+        cache.getView(1, loader);
+        cache.getOwnerView(1, loader);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void expiresViewAfterTtl() throws Exception {
+        ItemDetailCache cache = new ItemDetailCache(100, Duration.ofMillis(300), Duration.ofMinutes(1), new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<ItemBookingCommentDto> loader = () -> {
+            loads.incrementAndGet();
+            return ItemBookingCommentDto.builder().id(1).build();
+        };
+
+        cache.getView(1, loader);
+        cache.getView(1, loader);
+        assertEquals(1, loads.get());
+
+        Thread.sleep(400);
+        cache.getView(1, loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void expiresOwnerViewWhenNextBookingStarts() throws Exception {
+        ItemDetailCache cache = new ItemDetailCache(100, Duration.ofMinutes(10), Duration.ofMinutes(1), new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+        LocalDateTime nextStart = LocalDateTime.now().plusNanos(300_000_000);
+        Supplier<ItemBookingCommentDto> loader = () -> {
+            loads.incrementAndGet();
+            return ItemBookingCommentDto.builder()
+                    .id(1)
+                    .nextBooking(ShortBookingDto.builder().id(5).start(nextStart).build())
+                    .build();
+        };
+
+        cache.getOwnerView(1, loader);
+        cache.getOwnerView(1, loader);
+        assertEquals(1, loads.get());
+
+        Thread.sleep(400);
+        cache.getOwnerView(1, loader);
+        assertEquals(2, loads.get());
+    }
+
+}
@@ -0,0 +1,178 @@
+package ru.practicum.shareit.item.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.exception.APIBadRequestException;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+import ru.practicum.shareit.item.dto.RejectedLineDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemBatchRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemImporterTest {
+
+    private static final User OWNER = new User(1, "owner", "owner@test.com");
+
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemBatchRepository itemBatchRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ItemImporter itemImporter;
+
+    @BeforeEach
+    void setUp() {
+        itemImporter = new ItemImporter(
+                itemRepository,
+                itemRequestRepository,
+                itemBatchRepository,
+                eventPublisher,
+                transactionManager,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(),
+                2,
+                10
+        );
+    }
+
+    @Test
+    void importNdjsonInsertsValidLinesInBatches() {
+        when(itemRepository.findNamesByOwnerIdAndNameIn(anyInt(), anyCollection())).thenReturn(List.of());
+        ArgumentCaptor<List<Item>> batches = captureBatches();
+
+        ItemImportReportDto report = itemImporter.importItems(OWNER, ItemImportFormat.NDJSON, input(
+                "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}",
+                "",
+                "{\"name\":\"Пила\",\"description\":\"Цепная\",\"available\":false,\"ownerId\":99}",
+                "{\"name\":\"Отвёртка\",\"description\":\"Крестовая\",\"available\":true}"
+        ));
+
+        assertEquals(3, report.getLines());
+        assertEquals(3, report.getImported());
+        assertEquals(0, report.getRejected());
+        assertEquals(List.of(List.of("Дрель", "Пила"), List.of("Отвёртка")), names(batches));
+        verify(transactionManager, times(2)).commit(any());
+        ArgumentCaptor<ItemChangedEvent> events = ArgumentCaptor.forClass(ItemChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(List.of(2, 1), events.getAllValues().stream()
+                .map(event -> event.getCreated().size())
+                .collect(Collectors.toList()));
+        assertTrue(events.getAllValues().stream().allMatch(ItemChangedEvent::isImported));
+    }
+
+    @Test
+    void importNdjsonReportsRejectedLines() {
+        when(itemRepository.findNamesByOwnerIdAndNameIn(anyInt(), anyCollection())).thenReturn(List.of("Дрель"));
+        when(itemRequestRepository.findIdsByIdIn(anyCollection())).thenReturn(List.of(5));
+        ItemRequest request = new ItemRequest();
+        request.setId(5);
+        when(itemRequestRepository.getReferenceById(5)).thenReturn(request);
+        ArgumentCaptor<List<Item>> batches = captureBatches();
+
+        ItemImportReportDto report = itemImporter.importItems(OWNER, ItemImportFormat.NDJSON, input(
+                "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}",
+                "{\"name\":\"\",\"description\":\"Без названия\",\"available\":true}",
+                "{\"name\":\"Пила\",\"description\":\"Цепная\",\"available\":true,\"requestId\":5}",
+                "{\"name\":\"Лобзик\",\"description\":\"Электрический\",\"available\":true,\"requestId\":6}",
+                "не json"
+        ));
+
+        assertEquals(5, report.getLines());
+        assertEquals(1, report.getImported());
+        assertEquals(4, report.getRejected());
+        assertEquals(List.of(1, 2, 4, 5), report.getRejectedLines().stream()
+                .map(RejectedLineDto::getLine)
+                .collect(Collectors.toList()));
+        assertEquals("Некорректные поля: name", report.getRejectedLines().get(1).getError());
+        assertEquals(List.of(List.of("Пила")), names(batches));
+        ArgumentCaptor<ItemChangedEvent> event = ArgumentCaptor.forClass(ItemChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertTrue(event.getValue().isRequestItemsChanged());
+        assertEquals(Set.of(5), event.getValue().getAnsweredRequestIds());
+    }
+
+    @Test
+    void importCsvUsesHeaderForColumnOrder() {
+        when(itemRepository.findNamesByOwnerIdAndNameIn(anyInt(), anyCollection())).thenReturn(List.of());
+        ArgumentCaptor<List<Item>> batches = captureBatches();
+
+        ItemImportReportDto report = itemImporter.importItems(OWNER, ItemImportFormat.CSV, input(
+                "\uFEFFavailable,name,description",
+                "true,Дрель,\"Ударная, с кейсом\"",
+                "TRUE,\"Пила \"\"Дружба\"\"\",Цепная",
+                "Дрель,true,Цепная"
+        ));
+
+        assertEquals(3, report.getLines());
+        assertEquals(2, report.getImported());
+        assertEquals(4, report.getRejectedLines().get(0).getLine());
+        assertEquals("Некорректное значение available: Дрель", report.getRejectedLines().get(0).getError());
+        assertEquals(List.of(List.of("Дрель", "Пила \"Дружба\"")), names(batches));
+    }
+
+    @Test
+    void importCsvWithoutRequiredColumnFails() {
+        InputStream input = input("name,available", "Дрель,true");
+
+        assertThrows(APIBadRequestException.class, () -> itemImporter.importItems(OWNER, ItemImportFormat.CSV, input));
+        verifyNoInteractions(itemBatchRepository);
+    }
+
+    @Test
+    void splitCsvLine() {
+        assertEquals(List.of("a", "b, c", "", "d\"e"), CsvLineParser.split("a,\"b, c\",,\"d\"\"e\""));
+        assertThrows(APIBadRequestException.class, () -> CsvLineParser.split("a,\"b"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ArgumentCaptor<List<Item>> captureBatches() {
+        ArgumentCaptor<List<Item>> captor = ArgumentCaptor.forClass(List.class);
+        doNothing().when(itemBatchRepository).insertAll(captor.capture());
+        return captor;
+    }
+
+    private static List<List<String>> names(ArgumentCaptor<List<Item>> batches) {
+        return batches.getAllValues().stream()
+                .map(items -> items.stream().map(Item::getName).collect(Collectors.toList()))
+                .collect(Collectors.toList());
+    }
+
+    private static InputStream input(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+}
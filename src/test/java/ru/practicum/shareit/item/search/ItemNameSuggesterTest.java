@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemNameSuggesterTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void completesNamesInAlphabeticalOrder() {
+        when(itemRepository.streamAvailableDocuments()).thenReturn(Stream.of(
+                new ItemDocument(1, "Дрель ударная", ""),
+                new ItemDocument(2, "Дрель", ""),
+                new ItemDocument(3, "дрель", ""),
+                new ItemDocument(4, "Дрезина", ""),
+                new ItemDocument(5, "Пила", "")
+        ));
+        ItemNameSuggester suggester = new ItemNameSuggester(itemRepository, transactionManager);
+
+        assertEquals(List.of("Дрезина", "Дрель", "Дрель ударная"), suggester.suggest("ДРЕ", 10));
+        assertEquals(List.of("Дрезина", "Дрель"), suggester.suggest("дре", 2));
+        assertEquals(List.of("Дрель ударная"), suggester.suggest("дрель   у", 10));
+        assertTrue(suggester.suggest("молоток", 10).isEmpty());
+        assertTrue(suggester.suggest("  ", 10).isEmpty());
+        verify(itemRepository, times(1)).streamAvailableDocuments();
+    }
+
+    @Test
+    void followsEditsAndRemovals() {
+        when(itemRepository.streamAvailableDocuments()).thenReturn(Stream.of(
+                new ItemDocument(1, "Дрель", ""),
+                new ItemDocument(2, "Дрель", ""),
+                new ItemDocument(3, "Дрезина", "")
+        ));
+        ItemNameSuggester suggester = new ItemNameSuggester(itemRepository, transactionManager);
+        suggester.load();
+
+        suggester.index(item(1, "Перфоратор", true));
+        assertEquals(List.of("Дрезина", "Дрель"), suggester.suggest("дре", 10));
+        suggester.remove(List.of(2));
+        assertEquals(List.of("Дрезина"), suggester.suggest("дре", 10));
+        suggester.index(item(3, "Дрезина", false));
+        assertTrue(suggester.suggest("дре", 10).isEmpty());
+        assertEquals(List.of("Перфоратор"), suggester.suggest("пер", 10));
+    }
+
+    @Test
+    void showsSurvivingSpellingAfterRemoval() {
+        when(itemRepository.streamAvailableDocuments()).thenReturn(Stream.of(
+                new ItemDocument(1, "дрель", ""),
+                new ItemDocument(2, "Дрель", ""),
+                new ItemDocument(3, "Дрель", "")
+        ));
+        ItemNameSuggester suggester = new ItemNameSuggester(itemRepository, transactionManager);
+
+        assertEquals(List.of("дрель"), suggester.suggest("дре", 10));
+        suggester.remove(List.of(1));
+        assertEquals(List.of("Дрель"), suggester.suggest("дре", 10));
+        suggester.index(item(2, "ДРЕЛЬ", true));
+        assertEquals(List.of("Дрель"), suggester.suggest("дре", 10));
+        suggester.remove(List.of(3));
+        assertEquals(List.of("ДРЕЛЬ"), suggester.suggest("дре", 10));
+    }
+
+    private static Item item(int id, String name, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setAvailable(available);
+        return item;
+    }
+
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemSearchCacheTest {
+
+    @Test
+    void servesRepeatedQueriesUntilCatalogChanges() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ItemSearchCache cache = new ItemSearchCache(100, registry);
+        AtomicInteger searches = new AtomicInteger();
+        Supplier<List<Integer>> search = () -> {
+            searches.incrementAndGet();
+            return List.of(1);
+        };
+
+        assertEquals(List.of(1), cache.get("Дрель ", SearchOrder.ID, 0, 10, search));
+        assertEquals(List.of(1), cache.get("  дрель", SearchOrder.ID, 0, 10, search));
+        // ключ нормализуется так же, как токены поиска
+        assertEquals(List.of(1), cache.get("ДРЁЛЬ", SearchOrder.ID, 0, 10, search));
+        cache.get("дрель", SearchOrder.RELEVANCE, 0, 10, search);
+        cache.get("дрель", SearchOrder.ID, 10, 10, search);
+        assertEquals(3, searches.get());
+
+        cache.invalidate();
+        assertEquals(1, cache.getCatalogVersion());
+        cache.get("дрель", SearchOrder.ID, 0, 10, search);
+        assertEquals(4, searches.get());
+
+        assertEquals(2, registry.get("cache.gets").tag("cache", ItemSearchCache.NAME).tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(4, registry.get("cache.gets").tag("cache", ItemSearchCache.NAME).tag("result", "miss")
+                .functionCounter().count());
+    }
+
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void matchesPrefixesOfEveryWord() {
+        when(itemRepository.streamAvailableDocuments()).thenReturn(Stream.of(
+                new ItemDocument(3, "Дрель", "Аккумуляторная дрель Bosch"),
+                new ItemDocument(1, "Дрель ударная", "Мощная, с насадками"),
+                new ItemDocument(7, "Отвёртка", "Аккумуляторная отвертка")
+        ));
+        ItemSearchIndex index = new ItemSearchIndex(itemRepository, transactionManager);
+
+        assertEquals(List.of(1, 3), index.search("ДРЕЛ", SearchOrder.ID, 0, 10));
+        assertEquals(List.of(3, 7), index.search("аккум", SearchOrder.ID, 0, 10));
+        assertEquals(List.of(3), index.search("аккум дрель", SearchOrder.ID, 0, 10));
+        assertEquals(List.of(7), index.search("отвёр", SearchOrder.ID, 0, 10));
+        assertTrue(index.search("аккум пила", SearchOrder.ID, 0, 10).isEmpty());
+        assertTrue(index.search(" , ", SearchOrder.ID, 0, 10).isEmpty());
+        verify(itemRepository, times(1)).streamAvailableDocuments();
+    }
+
+    @Test
+    void ranksNameExactAndShortFieldsFirst() {
+        when(itemRepository.streamAvailableDocuments()).thenReturn(Stream.of(
+                new ItemDocument(5, "Насадка", "Дрельная насадка"),
+                new ItemDocument(4, "Перфоратор", "Умеет работать как дрель"),
+                new ItemDocument(3, "Дрельщик набор", "Набор"),
+                new ItemDocument(2, "Дрель ударная Bosch мощная", "Ударная"),
+                new ItemDocument(1, "Дрель", "Простая"),
+                new ItemDocument(6, "Пила", "Пила")
+        ));
+        ItemSearchIndex index = new ItemSearchIndex(itemRepository, transactionManager);
+
+        assertEquals(List.of(1, 2, 3, 4, 5), index.search("дрель", SearchOrder.RELEVANCE, 0, 10));
+        assertEquals(List.of(2, 3), index.search("дрель", SearchOrder.RELEVANCE, 1, 2));
+        assertEquals(List.of(2), index.search("дрель удар", SearchOrder.RELEVANCE, 0, 10));
+        assertTrue(index.search("дрель", SearchOrder.RELEVANCE, 5, 10).isEmpty());
+    }
+
+    @Test
+    void followsEditsAndRemovals() {
+        when(itemRepository.streamAvailableDocuments()).thenReturn(Stream.of(
+                new ItemDocument(1, "Дрель", "Простая дрель"),
+                new ItemDocument(2, "Пила", "Ручная пила")
+        ));
+        ItemSearchIndex index = new ItemSearchIndex(itemRepository, transactionManager);
+        index.load();
+
+        index.index(item(1, "Перфоратор", "Тяжёлый перфоратор", true));
+        index.index(item(3, "Дрель", "Новая дрель", true));
+        index.index(item(2, "Пила", "Ручная пила", false));
+
+        assertEquals(List.of(3), index.search("дрель", SearchOrder.ID, 0, 10));
+        assertEquals(List.of(1), index.search("перфо", SearchOrder.ID, 0, 10));
+        assertTrue(index.search("пила", SearchOrder.ID, 0, 10).isEmpty());
+
+        index.remove(List.of(1, 3));
+        assertTrue(index.search("дрель", SearchOrder.ID, 0, 10).isEmpty());
+        assertTrue(index.search("перфо", SearchOrder.ID, 0, 10).isEmpty());
+    }
+
+    private static Item item(int id, String name, String description, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        return item;
+    }
+
+}
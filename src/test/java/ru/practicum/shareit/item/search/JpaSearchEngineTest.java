@@ -0,0 +1,46 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class JpaSearchEngineTest {
+
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    @Test
+    void pageStartsExactlyAtOffset() {
+        User owner = userRepository.save(new User(null, "owner", "owner@search.com"));
+        List<Integer> ids = IntStream.range(0, 5)
+                .mapToObj(i -> {
+                    Item item = new Item();
+                    item.setName("Дрель " + i);
+                    item.setDescription("Ударная");
+                    item.setAvailable(true);
+                    item.setOwner(owner);
+                    return itemRepository.save(item).getId();
+                })
+                .collect(Collectors.toList());
+        JpaSearchEngine searchEngine = new JpaSearchEngine(itemRepository);
+
+        assertEquals(ids.subList(3, 5), searchEngine.search("дрель", SearchOrder.ID, 3, 2));
+        assertEquals(ids.subList(1, 4), searchEngine.search("дрель", SearchOrder.RELEVANCE, 1, 3));
+    }
+
+}
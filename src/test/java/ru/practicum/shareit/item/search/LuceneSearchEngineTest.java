@@ -0,0 +1,160 @@
+package ru.practicum.shareit.item.search;
+
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LuceneSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @TempDir
+    Path path;
+
+    @Test
+    void searchesPagesAndFollowsWrites() throws Exception {
+        when(itemRepository.streamAvailableDocuments()).thenReturn(Stream.of(
+                new ItemDocument(3, "Дрель", "Аккумуляторная дрель Bosch"),
+                new ItemDocument(1, "Дрель ударная", "Мощная, с насадками"),
+                new ItemDocument(7, "Отвёртка", "Аккумуляторная отвертка")
+        ));
+        LuceneSearchEngine engine = new LuceneSearchEngine(itemRepository, transactionManager, path);
+        engine.load();
+
+        assertEquals(List.of(1, 3), engine.search("ДРЕЛ", SearchOrder.ID, 0, 10));
+        assertEquals(List.of(3), engine.search("дрель", SearchOrder.ID, 1, 10));
+        assertEquals(List.of(3), engine.search("аккум дрель", SearchOrder.ID, 0, 10));
+        assertEquals(List.of(7), engine.search("отвёр", SearchOrder.ID, 0, 10));
+        assertTrue(engine.search("аккум пила", SearchOrder.ID, 0, 10).isEmpty());
+
+        engine.index(item(3, "Дрель", false));
+        engine.index(item(4, "Дрель новая", true));
+        engine.remove(List.of(1));
+        assertEquals(List.of(4), engine.search("дрель", SearchOrder.ID, 0, 10));
+        engine.close();
+
+        // при повторном открытии индекс читается с диска без загрузки из базы
+        when(itemRepository.countByAvailableTrue()).thenReturn(2L);
+        LuceneSearchEngine reopened = new LuceneSearchEngine(itemRepository, transactionManager, path);
+        reopened.load();
+        assertEquals(List.of(4), reopened.search("дрел нов", SearchOrder.ID, 0, 10));
+        assertEquals(List.of(7), reopened.search("аккум", SearchOrder.ID, 0, 10));
+        reopened.close();
+        verify(itemRepository, times(1)).streamAvailableDocuments();
+    }
+
+    @Test
+    void rebuildsIndexThatDiffersFromDatabase() throws Exception {
+        when(itemRepository.streamAvailableDocuments())
+                .thenReturn(Stream.of(new ItemDocument(1, "Дрель", "")))
+                .thenReturn(Stream.of(new ItemDocument(1, "Дрель", ""), new ItemDocument(2, "Дрель новая", "")));
+        LuceneSearchEngine engine = new LuceneSearchEngine(itemRepository, transactionManager, path);
+        engine.load();
+        engine.close();
+
+        // предмет 2 добавили, пока индекс был закрыт, и его запись не дошла до диска
+        when(itemRepository.countByAvailableTrue()).thenReturn(2L);
+        LuceneSearchEngine reopened = new LuceneSearchEngine(itemRepository, transactionManager, path);
+        reopened.load();
+        assertEquals(List.of(1, 2), reopened.search("дрель", SearchOrder.ID, 0, 10));
+        reopened.close();
+        verify(itemRepository, times(2)).streamAvailableDocuments();
+    }
+
+    @Test
+    void keepsUncommittedWritesVisibleAndCommitsThem() throws Exception {
+        when(itemRepository.streamAvailableDocuments()).thenReturn(Stream.empty());
+        LuceneSearchEngine engine = new LuceneSearchEngine(itemRepository, transactionManager, path);
+        engine.load();
+
+        engine.index(item(5, "Пила", true));
+        assertEquals(List.of(5), engine.search("пила", SearchOrder.ID, 0, 10));
+        engine.commit();
+        try (DirectoryReader reader = DirectoryReader.open(FSDirectory.open(path))) {
+            assertEquals(1, reader.numDocs());
+        }
+        engine.close();
+    }
+
+    @Test
+    void ranksNameMatchesFirst() throws Exception {
+        when(itemRepository.streamAvailableDocuments()).thenReturn(Stream.of(
+                new ItemDocument(1, "Перфоратор", "Умеет работать как дрель"),
+                new ItemDocument(2, "Дрельщик набор", "Набор"),
+                new ItemDocument(3, "Дрель", "Простая"),
+                new ItemDocument(4, "Насадка", "Дрельная насадка")
+        ));
+        LuceneSearchEngine engine = new LuceneSearchEngine(itemRepository, transactionManager, path);
+        engine.load();
+
+        assertEquals(List.of(3, 2, 1, 4), engine.search("дрель", SearchOrder.RELEVANCE, 0, 10));
+        assertEquals(List.of(2, 1), engine.search("дрель", SearchOrder.RELEVANCE, 1, 2));
+        assertEquals(List.of(1, 2, 3, 4), engine.search("дрель", SearchOrder.ID, 0, 10));
+        engine.close();
+    }
+
+    @Test
+    void ranksCommonNameMatchAboveRareDescriptionMatch() throws Exception {
+        // у слова в описаниях высокий IDF, в названиях низкий: порядок всё равно задают веса полей
+        when(itemRepository.streamAvailableDocuments()).thenReturn(Stream.concat(
+                IntStream.rangeClosed(1, 200).mapToObj(id -> new ItemDocument(id, "Дрель", "Обычная")),
+                Stream.of(new ItemDocument(201, "Перфоратор", "Дрель"),
+                        new ItemDocument(202, "Дрельщик", "Набор"))
+        ));
+        List<Integer> expected = IntStream.rangeClosed(1, 200).boxed().collect(Collectors.toList());
+        expected.add(202);
+        expected.add(201);
+        LuceneSearchEngine engine = new LuceneSearchEngine(itemRepository, transactionManager, path);
+        engine.load();
+
+        assertEquals(expected, engine.search("дрель", SearchOrder.RELEVANCE, 0, 300));
+        engine.close();
+    }
+
+    @Test
+    void ranksShorterFieldsFirstWithinMatchGroup() throws Exception {
+        when(itemRepository.streamAvailableDocuments()).thenReturn(Stream.of(
+                new ItemDocument(1, "Дрель ударная сетевая", "Инструмент"),
+                new ItemDocument(2, "Дрель", "Инструмент"),
+                new ItemDocument(3, "Перфоратор", "Дрель с набором бит"),
+                new ItemDocument(4, "Шуруповёрт", "Дрель")
+        ));
+        LuceneSearchEngine engine = new LuceneSearchEngine(itemRepository, transactionManager, path);
+        engine.load();
+
+        assertEquals(List.of(2, 1, 4, 3), engine.search("дрель", SearchOrder.RELEVANCE, 0, 10));
+        engine.close();
+    }
+
+    private static Item item(int id, String name, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(name);
+        item.setAvailable(available);
+        return item;
+    }
+
+}
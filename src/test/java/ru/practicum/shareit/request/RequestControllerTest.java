@@ -10,13 +10,16 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
+import ru.practicum.shareit.request.dto.RequestSuggestionDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestCursor;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.model.User;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Collections;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -24,6 +27,7 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = {ItemRequestController.class})
@@ -63,8 +67,7 @@ public class RequestControllerTest {
         requestDto.setDescription("test");
         User user = new User(1, "test", "test@test.ru");
         ItemRequest itemRequest = ItemRequestMapper.toModel(requestDto, user);
-        itemRequest.setItems(Collections.emptyList());
-        ItemRequestWithItemsDto model = ItemRequestMapper.toWithItemsDto(itemRequest);
+        ItemRequestWithItemsDto model = ItemRequestMapper.toWithItemsDto(itemRequest, new ArrayList<>());
         model.setId(1);
         when(requestService.getRequests(anyInt()))
                 .thenReturn(List.of(model));
@@ -81,14 +84,36 @@ public class RequestControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$[0].items").value(model.getItems()));
     }
 
+    @Test
+    void getRequestsAfterCursor() throws Exception {
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 12, 0);
+        ItemRequestWithItemsDto model = ItemRequestWithItemsDto.builder()
+                .id(7)
+                .description("test")
+                .created(created)
+                .items(new ArrayList<>())
+                .build();
+        String cursor = new RequestCursor(created.minusDays(1), 3).encode();
+        when(requestService.getRequestsAfter(1, cursor, 1))
+                .thenReturn(List.of(model));
+
+        mvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("size", "1")
+                        .param("cursor", cursor)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(7))
+                .andExpect(header().string("X-Next-Cursor", new RequestCursor(created, 7).encode()));
+    }
+
     @Test
     void getRequestsPageable() throws Exception {
         CreateItemRequestDto requestDto = new CreateItemRequestDto();
         requestDto.setDescription("test");
         User user = new User(1, "test", "test@test.ru");
         ItemRequest itemRequest = ItemRequestMapper.toModel(requestDto, user);
-        itemRequest.setItems(Collections.emptyList());
-        ItemRequestWithItemsDto model = ItemRequestMapper.toWithItemsDto(itemRequest);
+        ItemRequestWithItemsDto model = ItemRequestMapper.toWithItemsDto(itemRequest, new ArrayList<>());
         model.setId(1);
         when(requestService.getRequests(anyInt(), anyInt(), anyInt()))
                 .thenReturn(List.of(model));
@@ -105,14 +130,31 @@ public class RequestControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$[0].description").value(itemRequest.getDescription()));
     }
 
+    @Test
+    void getSuggestions() throws Exception {
+        RequestSuggestionDto suggestion = new RequestSuggestionDto(3, 7, "Дрель", "Ударная", true, 2, 0.75,
+                LocalDateTime.of(2024, 1, 1, 12, 0));
+        when(requestService.getSuggestions(1, 10, 5)).thenReturn(List.of(suggestion));
+
+        mvc.perform(get("/requests/suggestions")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("from", "10")
+                        .param("size", "5")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].requestId").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].item.id").value(7))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].item.name").value("Дрель"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].score").value(0.75));
+    }
+
     @Test
     void getRequestById() throws Exception {
         CreateItemRequestDto requestDto = new CreateItemRequestDto();
         requestDto.setDescription("test");
         User user = new User(1, "test", "test@test.ru");
         ItemRequest itemRequest = ItemRequestMapper.toModel(requestDto, user);
-        itemRequest.setItems(Collections.emptyList());
-        ItemRequestWithItemsDto model = ItemRequestMapper.toWithItemsDto(itemRequest);
+        ItemRequestWithItemsDto model = ItemRequestMapper.toWithItemsDto(itemRequest, new ArrayList<>());
         model.setId(1);
         when(requestService.getRequestById(anyInt(), anyInt()))
                 .thenReturn(model);
@@ -5,25 +5,40 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.exception.APIBadRequestException;
+import ru.practicum.shareit.exception.APINotFoundException;
 import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.cache.RequestFeedCache;
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
+import ru.practicum.shareit.request.dto.RequestSuggestionDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.matching.RequestMatcher;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestCursor;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.repository.RequestSuggestionRepository;
 import ru.practicum.shareit.request.service.impl.ItemRequestServiceImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +48,14 @@ public class RequestServiceTest {
     private ItemRequestRepository itemRequestRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private RequestFeedCache requestFeedCache;
+    @Mock
+    private RequestMatcher requestMatcher;
+    @Mock
+    private RequestSuggestionRepository requestSuggestionRepository;
     @InjectMocks
     private ItemRequestServiceImpl requestService;
 
@@ -56,6 +79,7 @@ public class RequestServiceTest {
                 .thenReturn(request);
         when(userRepository.findById(anyInt())).thenReturn(Optional.of(newUser));
         assertEquals(request, requestService.addRequest(dto, userId));
+        verify(requestMatcher).index(request);
     }
 
     @Test
@@ -74,13 +98,11 @@ public class RequestServiceTest {
         CreateItemDto itemDto = new CreateItemDto("TestItem", "DescriptionTest", true, newUser.getId(), request.getId());
         Item item = ItemMapper.toModel(itemDto, newUser, request);
         item.setId(itemId);
-        request.setItems(Collections.singletonList(item));
-        ItemRequestWithItemsDto withItemsDto = ItemRequestMapper.toWithItemsDto(request);
+        ItemRequestWithItemsDto withItemsDto = ItemRequestMapper.toWithItemsDto(request, List.of(ItemMapper.toItemDto(item)));
         when(itemRequestRepository.findAllByRequesterId(anyInt(), any()))
                 .thenReturn(List.of(request));
-        when(userRepository.existsById(anyInt()))
-                .thenReturn(true);
         assertEquals(withItemsDto.getDescription(), requestService.getRequests(userId).get(0).getDescription());
+        verify(userRepository, never()).existsById(anyInt());
     }
 
     @Test
@@ -99,13 +121,71 @@ public class RequestServiceTest {
         CreateItemDto itemDto = new CreateItemDto("TestItem", "DescriptionTest", true, newUser.getId(), request.getId());
         Item item = ItemMapper.toModel(itemDto, newUser, request);
         item.setId(itemId);
-        request.setItems(Collections.singletonList(item));
-        ItemRequestWithItemsDto withItemsDto = ItemRequestMapper.toWithItemsDto(request);
+        ItemRequestWithItemsDto withItemsDto = ItemRequestMapper.toWithItemsDto(request, List.of(ItemMapper.toItemDto(item)));
 
-        when(userRepository.existsById(anyInt())).thenReturn(true);
         when(itemRequestRepository.findAllByRequesterIdIsNot(anyInt(), any())).thenReturn(List.of(request));
-        assertEquals(withItemsDto.getDescription(),
-                requestService.getRequests(userId, 0, 10).get(0).getDescription());
+        when(itemRepository.findDtosByRequestIdIn(List.of(requestId))).thenReturn(withItemsDto.getItems());
+        ItemRequestWithItemsDto result = requestService.getRequests(userId, 0, 10).get(0);
+        assertEquals(withItemsDto.getDescription(), result.getDescription());
+        assertEquals(itemId, result.getItems().get(0).getId());
+        verify(userRepository, never()).existsById(anyInt());
+    }
+
+    @Test
+    void getRequestsAfterCursorReadsDatabaseOutsideCachedWindow() {
+        int userId = 1;
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 12, 0);
+        ItemRequest request = new ItemRequest();
+        request.setId(5);
+        request.setDescription("test");
+        request.setCreated(created.plusHours(1));
+        when(requestFeedCache.findPage(eq(userId), eq(new RequestCursor(created, 4)), eq(0), eq(10), any()))
+                .thenReturn(Optional.empty());
+        when(itemRequestRepository.findAllByRequesterIdIsNotAfter(userId, created, 4, PageRequest.of(0, 10)))
+                .thenReturn(List.of(request));
+
+        List<ItemRequestWithItemsDto> result = requestService.getRequestsAfter(
+                userId, new RequestCursor(created, 4).encode(), 10);
+
+        assertEquals(5, result.get(0).getId());
+        assertEquals(List.of(), result.get(0).getItems());
+    }
+
+    @Test
+    void getRequestsFromCachedFeedChecksUser() {
+        when(requestFeedCache.findPage(eq(1), eq(null), eq(0), eq(10), any())).thenReturn(Optional.of(List.of()));
+
+        assertThrows(APINotFoundException.class, () -> requestService.getRequests(1, 0, 10));
+    }
+
+    @Test
+    void getRequestsPageableNoUser() {
+        when(itemRequestRepository.findAllByRequesterIdIsNot(anyInt(), any())).thenReturn(List.of());
+
+        assertThrows(APINotFoundException.class, () -> requestService.getRequests(1, 0, 10));
+        verify(userRepository).existsById(1);
+    }
+
+    @Test
+    void getRequestsAfterBadCursor() {
+        assertThrows(APIBadRequestException.class, () -> requestService.getRequestsAfter(1, "плохой", 10));
+    }
+
+    @Test
+    void getSuggestions() {
+        int userId = 1;
+        ItemDto item = new ItemDto(7, "Дрель", "Ударная", true, 2, null);
+        RequestSuggestionDto suggestion = new RequestSuggestionDto(3, item, 0.8, LocalDateTime.now());
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(requestSuggestionRepository.findPageByRequesterId(userId, PageRequest.of(1, 10)))
+                .thenReturn(List.of(suggestion));
+
+        assertEquals(List.of(suggestion), requestService.getSuggestions(userId, 15, 10));
+    }
+
+    @Test
+    void getSuggestionsNoUser() {
+        assertThrows(APINotFoundException.class, () -> requestService.getSuggestions(1, 0, 10));
     }
 
     @Test
@@ -124,8 +204,7 @@ public class RequestServiceTest {
         CreateItemDto itemDto = new CreateItemDto("TestItem", "DescriptionTest", true, newUser.getId(), request.getId());
         Item item = ItemMapper.toModel(itemDto, newUser, request);
         item.setId(itemId);
-        request.setItems(Collections.singletonList(item));
-        ItemRequestWithItemsDto withItemsDto = ItemRequestMapper.toWithItemsDto(request);
+        ItemRequestWithItemsDto withItemsDto = ItemRequestMapper.toWithItemsDto(request, List.of(ItemMapper.toItemDto(item)));
 
         when(userRepository.existsById(anyInt()))
                 .thenReturn(true);
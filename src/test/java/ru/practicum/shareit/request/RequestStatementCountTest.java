@@ -0,0 +1,133 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:request-statements",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class RequestStatementCountTest {
+
+    private static final int REQUESTS = 8;
+    // страница запросов и предметы всей страницы: непустая страница уже подтверждает пользователя;
+    // общий кэш ленты внутри пишущей транзакции теста не используется, поэтому считаются обращения к базе
+    private static final long PAGE_STATEMENTS = 2;
+    // запрос по id не говорит ничего о читателе, поэтому его приходится проверять отдельно
+    private static final long REQUEST_STATEMENTS = 1 + PAGE_STATEMENTS;
+
+    private final MockMvc mvc;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private User requester;
+    private User reader;
+    private ItemRequest first;
+
+    @BeforeEach
+    void setUp() {
+        requester = userRepository.save(new User(null, "requester", "requester@statements.com"));
+        reader = userRepository.save(new User(null, "reader", "reader@statements.com"));
+        LocalDateTime created = LocalDateTime.now().minusDays(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            ItemRequest request = new ItemRequest();
+            request.setDescription("request" + i);
+            request.setRequester(requester);
+            request.setCreated(created.plusDays(i));
+            request = itemRequestRepository.save(request);
+            if (i == 0) {
+                first = request;
+            }
+            // у каждого предмета свой владелец, чтобы ленивые связи было видно по числу запросов
+            for (int j = 0; j < 2; j++) {
+                User owner = userRepository.save(new User(null, "owner" + i + j, "owner" + i + j + "@statements.com"));
+                Item item = new Item();
+                item.setName("item" + i + j);
+                item.setDescription("description");
+                item.setAvailable(true);
+                item.setOwner(owner);
+                item.setRequest(request);
+                itemRepository.save(item);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void ownRequestsDoNotDependOnCount() throws Exception {
+        assertStatements(PAGE_STATEMENTS, "/requests", requester)
+                .andExpect(jsonPath("$.length()").value(REQUESTS))
+                .andExpect(jsonPath("$[0].items.length()").value(2));
+    }
+
+    @Test
+    void otherRequestsPageDoesNotDependOnSize() throws Exception {
+        assertStatements(PAGE_STATEMENTS, "/requests/all?size=2", reader)
+                .andExpect(jsonPath("$.length()").value(2));
+        assertStatements(PAGE_STATEMENTS, "/requests/all?size=" + REQUESTS, reader)
+                .andExpect(jsonPath("$.length()").value(REQUESTS))
+                .andExpect(jsonPath("$[" + (REQUESTS - 1) + "].items[1].name").value("item" + (REQUESTS - 1) + 1));
+    }
+
+    @Test
+    void cursorPageDoesNotDependOnSize() throws Exception {
+        String cursor = assertStatements(PAGE_STATEMENTS, "/requests/all?size=3", reader)
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+        assertStatements(PAGE_STATEMENTS, "/requests/all?size=3&cursor=" + cursor, reader)
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].description").value("request3"));
+        assertStatements(PAGE_STATEMENTS, "/requests/all?size=" + REQUESTS + "&cursor=" + cursor, reader)
+                .andExpect(jsonPath("$.length()").value(REQUESTS - 3));
+    }
+
+    @Test
+    void requestByIdLoadsItemsInOneStatement() throws Exception {
+        assertStatements(REQUEST_STATEMENTS, "/requests/" + first.getId(), reader)
+                .andExpect(jsonPath("$.items.length()").value(2));
+    }
+
+    private ResultActions assertStatements(long expected, String url, User user) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ResultActions result = mvc.perform(get(url)
+                        .header("X-Sharer-User-Id", user.getId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        assertEquals(expected, statistics.getPrepareStatementCount(), url);
+        entityManager.clear();
+        return result;
+    }
+
+}
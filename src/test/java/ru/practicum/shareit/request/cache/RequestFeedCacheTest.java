@@ -0,0 +1,89 @@
+package ru.practicum.shareit.request.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.request.dto.ItemRequestWithItemsDto;
+import ru.practicum.shareit.request.model.RequestCursor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestFeedCacheTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void excludesOwnRequestsFromSharedWindow() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        RequestFeedCache cache = new RequestFeedCache(10, registry);
+        // запросы 1..6, чётные принадлежат пользователю 2, нечётные пользователю 1
+        IntFunction<List<FeedEntry>> loader = feed(6);
+
+        assertEquals(List.of(2, 4), ids(cache.findPage(1, null, 0, 2, loader)));
+        assertEquals(List.of(3, 5), ids(cache.findPage(2, null, 1, 2, loader)));
+        assertEquals(List.of(4, 6), ids(cache.findPage(1, new RequestCursor(CREATED.plusHours(2), 2), 0, 5, loader)));
+        assertEquals(List.of(), ids(cache.findPage(2, new RequestCursor(CREATED.plusHours(6), 6), 0, 5, loader)));
+        assertEquals(1, loads.get());
+        assertEquals(3, registry.get("cache.gets").tag("cache", RequestFeedCache.NAME).tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void fallsBackWhenPageLeavesFullWindow() {
+        RequestFeedCache cache = new RequestFeedCache(4, new SimpleMeterRegistry());
+        IntFunction<List<FeedEntry>> loader = feed(20);
+
+        assertEquals(List.of(2, 4), ids(cache.findPage(1, null, 0, 2, loader)));
+        assertTrue(cache.findPage(1, null, 2, 2, loader).isEmpty());
+        assertTrue(cache.findPage(1, new RequestCursor(CREATED.plusHours(2), 2), 0, 2, loader).isEmpty());
+    }
+
+    @Test
+    void reloadsAfterInvalidate() {
+        RequestFeedCache cache = new RequestFeedCache(10, new SimpleMeterRegistry());
+        IntFunction<List<FeedEntry>> loader = feed(3);
+
+        cache.findPage(1, null, 0, 10, loader);
+        cache.findPage(1, null, 0, 10, loader);
+        cache.invalidate();
+        assertEquals(1, cache.getFeedVersion());
+        cache.findPage(1, null, 0, 10, loader);
+        assertEquals(2, loads.get());
+    }
+
+    private IntFunction<List<FeedEntry>> feed(int total) {
+        return window -> {
+            loads.incrementAndGet();
+            List<FeedEntry> feed = new ArrayList<>();
+            for (int id = 1; id <= Math.min(total, window); id++) {
+                ItemRequestWithItemsDto request = ItemRequestWithItemsDto.builder()
+                        .id(id)
+                        .description("request" + id)
+                        .created(CREATED.plusHours(id))
+                        .items(List.of())
+                        .build();
+                feed.add(new FeedEntry(id % 2 == 0 ? 2 : 1, request));
+            }
+            return feed;
+        };
+    }
+
+    private static List<Integer> ids(Optional<List<ItemRequestWithItemsDto>> page) {
+        assertTrue(page.isPresent());
+        return page.get().stream()
+                .map(ItemRequestWithItemsDto::getId)
+                .collect(Collectors.toList());
+    }
+
+}
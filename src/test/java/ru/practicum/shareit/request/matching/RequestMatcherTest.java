@@ -0,0 +1,116 @@
+package ru.practicum.shareit.request.matching;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RequestMatcherTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void matchesRequestsAboveThreshold() {
+        when(itemRequestRepository.streamOpenDocuments()).thenReturn(documents());
+        RequestMatcher matcher = new RequestMatcher(itemRequestRepository, transactionManager, 0.5, 20);
+
+        // запрос 3 принадлежит владельцу предмета, у запроса 4 совпала только малая часть слов
+        List<RequestMatch> matches = matcher.match(12, "Дрель ударная, мощная, с кейсом");
+
+        assertEquals(1, matches.size());
+        assertEquals(1, matches.get(0).getRequestId());
+        assertEquals(10, matches.get(0).getRequesterId());
+        double drill = Math.log(1 + 4.0 / 3);
+        double rare = Math.log(1 + 4.0);
+        assertEquals((drill + rare) / (drill + 2 * rare), matches.get(0).getScore(), DELTA);
+        assertTrue(matcher.match(12, "Палатка").isEmpty());
+        assertTrue(matcher.match(12, "на с").isEmpty());
+        verify(itemRequestRepository, times(1)).streamOpenDocuments();
+    }
+
+    @Test
+    void ordersByScoreAndLimitsMatches() {
+        when(itemRequestRepository.streamOpenDocuments()).thenReturn(documents());
+        RequestMatcher matcher = new RequestMatcher(itemRequestRepository, transactionManager, 0.1, 2);
+
+        assertEquals(List.of(3, 1), ids(matcher.match(99, "Ударная дрель")));
+    }
+
+    @Test
+    void followsNewAndAnsweredRequests() {
+        when(itemRequestRepository.streamOpenDocuments()).thenReturn(documents());
+        RequestMatcher matcher = new RequestMatcher(itemRequestRepository, transactionManager, 0.5, 20);
+        matcher.load();
+
+        matcher.remove(List.of(1));
+        assertTrue(matcher.match(12, "Ударная дрель").isEmpty());
+        matcher.index(request(5, 14, "ДРЕЛЬ!"));
+        assertEquals(List.of(5), ids(matcher.match(12, "Ударная дрель")));
+        assertEquals(List.of(3, 5), ids(matcher.match(99, "Ударная дрель")));
+        matcher.removeRequester(14);
+        assertEquals(List.of(3), ids(matcher.match(99, "Ударная дрель")));
+    }
+
+    @Test
+    void skipsPostingsOfFrequentTermsThatCannotReachThreshold() {
+        int common = 5_000;
+        when(itemRequestRepository.streamOpenDocuments()).thenReturn(Stream.concat(
+                IntStream.rangeClosed(1, common)
+                        .mapToObj(i -> new RequestDocument(i, 10, "Ищу вещь" + i + " модель" + i)),
+                Stream.of(new RequestDocument(common + 1, 11, "Нужна дрель"))
+        ));
+        RequestMatcher matcher = new RequestMatcher(itemRequestRepository, transactionManager, 0.5, 20);
+
+        // «ищу» есть в каждом запросе, но его доля в оценке трёхсловного запроса не выше трети
+        assertEquals(Set.of(common + 1), matcher.candidates("Ищу ударную дрель"));
+        assertEquals(List.of(common + 1), ids(matcher.match(12, "Ищу ударную дрель")));
+        assertTrue(matcher.candidates("Ищу что-нибудь").isEmpty());
+        assertEquals(List.of(7), ids(matcher.match(12, "Ищу вещь7 модель7")));
+    }
+
+    private static Stream<RequestDocument> documents() {
+        return Stream.of(
+                new RequestDocument(1, 10, "Нужна ударная дрель"),
+                new RequestDocument(2, 11, "Ищу палатку для похода"),
+                new RequestDocument(3, 12, "Дрель"),
+                new RequestDocument(4, 13, "Ищу дрель или перфоратор")
+        );
+    }
+
+    private static ItemRequest request(int id, int requesterId, String description) {
+        ItemRequest request = new ItemRequest();
+        request.setId(id);
+        request.setDescription(description);
+        request.setRequester(new User(requesterId, "requester", "requester@test.com"));
+        return request;
+    }
+
+    private static List<Integer> ids(List<RequestMatch> matches) {
+        return matches.stream()
+                .map(RequestMatch::getRequestId)
+                .collect(Collectors.toList());
+    }
+
+}
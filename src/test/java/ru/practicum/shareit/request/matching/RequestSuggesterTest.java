@@ -0,0 +1,107 @@
+package ru.practicum.shareit.request.matching;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.RequestSuggestion;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.repository.RequestSuggestionRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RequestSuggesterTest {
+
+    private static final User OWNER = new User(2, "owner", "owner@test.com");
+
+    @Mock
+    private RequestMatcher requestMatcher;
+    @Mock
+    private RequestSuggestionRepository requestSuggestionRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RequestSuggester requestSuggester;
+
+    @BeforeEach
+    void setUp() {
+        requestSuggester = new RequestSuggester(requestMatcher, requestSuggestionRepository, itemRepository,
+                itemRequestRepository, userRepository, transactionManager, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestSuggester.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void savesMatchesInBackground() {
+        Item item = item(true);
+        when(requestMatcher.match(2, "Дрель Ударная")).thenReturn(List.of(
+                new RequestMatch(3, 10, 0.75),
+                new RequestMatch(4, 11, 0.5)
+        ));
+        when(itemRepository.getReferenceById(7)).thenReturn(item);
+        ArgumentCaptor<List<RequestSuggestion>> captor = ArgumentCaptor.forClass(List.class);
+
+        requestSuggester.submit(item);
+
+        verify(requestSuggestionRepository, timeout(1000)).saveAll(captor.capture());
+        List<RequestSuggestion> suggestions = captor.getValue();
+        assertEquals(2, suggestions.size());
+        assertSame(item, suggestions.get(0).getItem());
+        assertEquals(0.75, suggestions.get(0).getScore());
+        verify(itemRequestRepository).getReferenceById(3);
+        verify(userRepository).getReferenceById(11);
+    }
+
+    @Test
+    void skipsUnavailableItems() {
+        requestSuggester.submit(item(false));
+
+        verify(requestMatcher, after(100).never()).match(anyInt(), anyString());
+        verifyNoInteractions(requestSuggestionRepository);
+    }
+
+    @Test
+    void skipsImportedItems() {
+        requestSuggester.onItemChanged(ItemChangedEvent.imported(List.of(item(true))));
+
+        verify(requestMatcher, after(100).never()).match(anyInt(), anyString());
+        verifyNoInteractions(requestSuggestionRepository);
+    }
+
+    private static Item item(boolean available) {
+        Item item = new Item();
+        item.setId(7);
+        item.setName("Дрель");
+        item.setDescription("Ударная");
+        item.setAvailable(available);
+        item.setOwner(OWNER);
+        return item;
+    }
+
+}